@@ -0,0 +1,94 @@
+package dev.marvinmarzon.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Named network and CPU throttling profiles applied through DevTools emulation
+ * Network values match the Chrome DevTools presets (latency in ms, throughput in bytes per second);
+ * profiles can be combined with '+', e.g. "slow-3g+4x-cpu".
+ */
+public enum ThrottleProfile {
+    NONE("none", 0, -1, -1, 1),
+    SLOW_3G("slow-3g", 2000, 50_000, 50_000, 1),
+    FAST_3G("fast-3g", 562.5, 180_000, 84_375, 1),
+    CPU_4X("4x-cpu", 0, -1, -1, 4);
+
+    private final String profileName;
+    private final double latencyMs;
+    private final double downloadBytesPerSecond;
+    private final double uploadBytesPerSecond;
+    private final double cpuSlowdown;
+
+    ThrottleProfile(String profileName, double latencyMs, double downloadBytesPerSecond,
+                    double uploadBytesPerSecond, double cpuSlowdown) {
+        this.profileName = profileName;
+        this.latencyMs = latencyMs;
+        this.downloadBytesPerSecond = downloadBytesPerSecond;
+        this.uploadBytesPerSecond = uploadBytesPerSecond;
+        this.cpuSlowdown = cpuSlowdown;
+    }
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    public double getLatencyMs() {
+        return latencyMs;
+    }
+
+    /**
+     * Download limit in bytes per second, -1 when unlimited
+     */
+    public double getDownloadBytesPerSecond() {
+        return downloadBytesPerSecond;
+    }
+
+    /**
+     * Upload limit in bytes per second, -1 when unlimited
+     */
+    public double getUploadBytesPerSecond() {
+        return uploadBytesPerSecond;
+    }
+
+    public double getCpuSlowdown() {
+        return cpuSlowdown;
+    }
+
+    public boolean throttlesNetwork() {
+        return latencyMs > 0 || downloadBytesPerSecond > 0 || uploadBytesPerSecond > 0;
+    }
+
+    public boolean throttlesCpu() {
+        return cpuSlowdown > 1;
+    }
+
+    /**
+     * Parse a profile name or a '+' separated combination; an unknown name is an error, since a
+     * silently unthrottled run would report misleading numbers
+     */
+    public static List<ThrottleProfile> parse(String profiles) {
+        List<ThrottleProfile> parsed = new ArrayList<>();
+        if (profiles == null || profiles.isBlank()) {
+            return parsed;
+        }
+        for (String name : profiles.split("\\+")) {
+            ThrottleProfile profile = Arrays.stream(values())
+                .filter(candidate -> candidate.profileName.equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown throttle profile '" + name.trim()
+                    + "', expected one of: " + Arrays.stream(values())
+                        .map(ThrottleProfile::getProfileName)
+                        .collect(Collectors.joining(", "))));
+            if (profile != NONE) {
+                parsed.add(profile);
+            }
+        }
+        if (parsed.stream().filter(ThrottleProfile::throttlesNetwork).count() > 1) {
+            throw new IllegalArgumentException("At most one network throttle profile can be combined: " + profiles);
+        }
+        return parsed;
+    }
+}
@@ -2,15 +2,27 @@ package dev.marvinmarzon.driver;
 
 import dev.marvinmarzon.config.BrowserConfig;
 import dev.marvinmarzon.config.TestEnvironment;
+import dev.marvinmarzon.config.ThrottleProfile;
+import dev.marvinmarzon.utils.CachingProxy;
+import dev.marvinmarzon.utils.FixtureServer;
+import dev.marvinmarzon.utils.JfrEvents;
+import dev.marvinmarzon.utils.PageMetrics;
+import dev.marvinmarzon.utils.RequestInterceptor;
+import dev.marvinmarzon.utils.SuiteMetrics;
 import dev.marvinmarzon.utils.TestConfigManager;
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.Augmenter;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.safari.SafariDriver;
 import org.slf4j.Logger;
@@ -19,6 +31,8 @@ import org.slf4j.LoggerFactory;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -29,11 +43,18 @@ import java.util.concurrent.ConcurrentHashMap;
 public class EnterpriseWebDriverManager {
     private static final Logger logger = LoggerFactory.getLogger(EnterpriseWebDriverManager.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> throttleThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> networkThrottledThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Map<String, String>> sessionOverridesThreadLocal = new ThreadLocal<>();
     private static final ConcurrentHashMap<Long, WebDriver> driverMap = new ConcurrentHashMap<>();
     
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
     private static final Duration DEFAULT_IMPLICIT_WAIT = Duration.ofSeconds(10);
 
+    static {
+        SuiteMetrics.registerGauge("suite_active_drivers", "WebDriver sessions currently open", driverMap::size);
+    }
+
     private EnterpriseWebDriverManager() {
         // Private constructor to prevent instantiation
     }
@@ -52,6 +73,9 @@ public class EnterpriseWebDriverManager {
         boolean isRemote = TestConfigManager.isRemoteExecution();
 
         WebDriver driver;
+        long start = System.nanoTime();
+        JfrEvents.DriverCreate event = new JfrEvents.DriverCreate();
+        event.begin();
         
         try {
             if (isRemote) {
@@ -60,15 +84,26 @@ public class EnterpriseWebDriverManager {
                 driver = createLocalDriver(browserConfig, isHeadless);
             }
 
-            configureDriver(driver);
+            // Registered before configuration so a failed setup still quits the browser
             setDriver(driver);
+            sessionOverridesThreadLocal.set(TestConfigManager.getScenarioOverrides());
+            configureDriver(driver);
+            SuiteMetrics.DRIVER_CREATION.observeNanos(System.nanoTime() - start);
+            event.succeeded = true;
             
             logger.info("Driver initialized successfully - Browser: {}, Headless: {}, Remote: {}, Thread: {}", 
                        browserConfig.getBrowserName(), isHeadless, isRemote, Thread.currentThread().getId());
 
         } catch (Exception e) {
+            SuiteMetrics.DRIVER_CREATION_FAILURES.increment();
             logger.error("Failed to initialize WebDriver for thread: {}", Thread.currentThread().getId(), e);
             throw new RuntimeException("WebDriver initialization failed", e);
+        } finally {
+            event.browser = browserConfig.getBrowserName();
+            event.remote = isRemote;
+            event.headless = isHeadless;
+            event.throttle = getThrottleProfile();
+            event.commit();
         }
     }
 
@@ -165,6 +200,13 @@ public class EnterpriseWebDriverManager {
         // Set user agent to avoid detection
         options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
 
+        String cachingProxy = CachingProxy.address();
+        if (cachingProxy != null) {
+            options.setProxy(cachingProxy(cachingProxy));
+            // Chromium bypasses proxies for loopback unless told otherwise
+            options.addArguments("--proxy-bypass-list=<-loopback>");
+        }
+
         return options;
     }
 
@@ -187,6 +229,12 @@ public class EnterpriseWebDriverManager {
         options.addPreference("browser.download.folderList", 2);
         options.addPreference("browser.helperApps.neverAsk.saveToDisk", "application/pdf");
         
+        String cachingProxy = CachingProxy.address();
+        if (cachingProxy != null) {
+            options.setProxy(cachingProxy(cachingProxy));
+            options.addPreference("network.proxy.allow_hijacking_localhost", true);
+        }
+        
         return options;
     }
 
@@ -211,9 +259,25 @@ public class EnterpriseWebDriverManager {
         options.addArguments("--disable-web-security");
         options.addArguments("--remote-allow-origins=*");
         
+        String cachingProxy = CachingProxy.address();
+        if (cachingProxy != null) {
+            options.setProxy(cachingProxy(cachingProxy));
+            options.addArguments("--proxy-bypass-list=<-loopback>");
+        }
+        
         return options;
     }
 
+    /**
+     * Route HTTP through the shared caching proxy; HTTPS goes through it as an uncached tunnel
+     */
+    private static Proxy cachingProxy(String address) {
+        Proxy proxy = new Proxy();
+        proxy.setHttpProxy(address);
+        proxy.setSslProxy(address);
+        return proxy;
+    }
+
     /**
      * Configure driver with timeouts and settings
      */
@@ -221,13 +285,67 @@ public class EnterpriseWebDriverManager {
         driver.manage().timeouts().implicitlyWait(DEFAULT_IMPLICIT_WAIT);
         driver.manage().timeouts().pageLoadTimeout(DEFAULT_TIMEOUT);
         driver.manage().timeouts().scriptTimeout(DEFAULT_TIMEOUT);
-        
-        if (!TestConfigManager.getHeadlessMode()) {
+        applyWindowSize(driver);
+
+        if (TestConfigManager.isPerformanceObserversEnabled()) {
+            PageMetrics.install(driver);
+        }
+
+        applyThrottling(driver);
+        RequestInterceptor.install(driver);
+    }
+
+    /**
+     * Size the window to the configured viewport, or maximize a headed browser without one
+     */
+    private static void applyWindowSize(WebDriver driver) {
+        int viewportWidth = TestConfigManager.getViewportWidth();
+        int viewportHeight = TestConfigManager.getViewportHeight();
+        if (viewportWidth > 0 && viewportHeight > 0) {
+            driver.manage().window().setSize(new Dimension(viewportWidth, viewportHeight));
+            logger.debug("Browser window resized to {}x{}", viewportWidth, viewportHeight);
+        } else if (!TestConfigManager.getHeadlessMode()) {
             driver.manage().window().maximize();
             logger.debug("Browser window maximized");
         }
     }
 
+    /**
+     * Apply the configured throttle profiles (test.throttle.profile or @throttle tag) through DevTools
+     * Only Chromium browsers support emulation; other browsers run unthrottled and report "none".
+     */
+    private static void applyThrottling(WebDriver driver) {
+        List<ThrottleProfile> profiles = ThrottleProfile.parse(TestConfigManager.getThrottleProfile());
+        if (profiles.isEmpty()) {
+            return;
+        }
+        // Remote sessions only expose CDP once augmented
+        WebDriver cdpDriver = driver.getClass() == RemoteWebDriver.class ? new Augmenter().augment(driver) : driver;
+        if (!(cdpDriver instanceof HasCdp cdp)) {
+            logger.warn("Throttle profile '{}' needs a Chromium browser; running unthrottled",
+                       TestConfigManager.getThrottleProfile());
+            return;
+        }
+
+        for (ThrottleProfile profile : profiles) {
+            if (profile.throttlesNetwork()) {
+                cdp.executeCdpCommand("Network.enable", Map.of());
+                cdp.executeCdpCommand("Network.emulateNetworkConditions", Map.of(
+                    "offline", false,
+                    "latency", profile.getLatencyMs(),
+                    "downloadThroughput", profile.getDownloadBytesPerSecond(),
+                    "uploadThroughput", profile.getUploadBytesPerSecond()));
+            }
+            if (profile.throttlesCpu()) {
+                cdp.executeCdpCommand("Emulation.setCPUThrottlingRate", Map.of("rate", profile.getCpuSlowdown()));
+            }
+        }
+        String applied = profiles.stream().map(ThrottleProfile::getProfileName).reduce((a, b) -> a + "+" + b).orElseThrow();
+        throttleThreadLocal.set(applied);
+        networkThrottledThreadLocal.set(profiles.stream().anyMatch(ThrottleProfile::throttlesNetwork));
+        logger.info("Throttle profile applied: {} for thread: {}", applied, Thread.currentThread().getId());
+    }
+
     /**
      * Get browser configuration from properties
      */
@@ -243,6 +361,21 @@ public class EnterpriseWebDriverManager {
         return driverThreadLocal.get();
     }
 
+    /**
+     * Throttle profile in effect for the current thread's driver, "none" when unthrottled
+     */
+    public static String getThrottleProfile() {
+        String profile = throttleThreadLocal.get();
+        return profile != null ? profile : ThrottleProfile.NONE.getProfileName();
+    }
+
+    /**
+     * Whether the current thread's driver has network conditions emulated, which needs the Network domain enabled
+     */
+    public static boolean isNetworkThrottled() {
+        return Boolean.TRUE.equals(networkThrottledThreadLocal.get());
+    }
+
     /**
      * Set WebDriver instance for current thread
      */
@@ -257,18 +390,69 @@ public class EnterpriseWebDriverManager {
     public static void quitDriver() {
         WebDriver driver = getDriver();
         if (driver != null) {
+            JfrEvents.DriverQuit event = new JfrEvents.DriverQuit();
+            event.begin();
             try {
                 driver.quit();
+                event.succeeded = true;
                 logger.info("Driver quit successfully for thread: {}", Thread.currentThread().getId());
             } catch (Exception e) {
                 logger.error("Error quitting driver for thread: {}", Thread.currentThread().getId(), e);
             } finally {
+                event.commit();
                 driverThreadLocal.remove();
+                throttleThreadLocal.remove();
+                networkThrottledThreadLocal.remove();
+                sessionOverridesThreadLocal.remove();
                 driverMap.remove(Thread.currentThread().getId());
             }
         }
     }
 
+    /**
+     * Clear cookies and web storage so a kept driver starts its next scenario like a new session
+     * A driver that cannot be reset is quit, and the next scenario creates a fresh one.
+     */
+    public static void resetSession() {
+        WebDriver driver = getDriver();
+        if (driver == null) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            logger.debug("Driver session reset for thread: {}", Thread.currentThread().getId());
+        } catch (Exception e) {
+            logger.warn("Could not reset driver session, quitting it: {}", e.getMessage());
+            quitDriver();
+        }
+    }
+
+    /**
+     * Prepare the current thread's kept driver for its next scenario, creating one if there is none
+     * A driver created for other scenario overrides (browser, viewport, throttling, @config) is replaced,
+     * since those are applied when the browser starts. Otherwise the window size and request interception,
+     * which the previous scenario may have changed or stopped, are applied again.
+     */
+    public static void reuseDriver() {
+        WebDriver driver = getDriver();
+        if (driver != null && !TestConfigManager.getScenarioOverrides().equals(sessionOverridesThreadLocal.get())) {
+            logger.info("Scenario overrides changed, replacing the kept driver for thread: {}",
+                       Thread.currentThread().getId());
+            quitDriver();
+            driver = null;
+        }
+        if (driver == null) {
+            initializeDriver();
+            return;
+        }
+        applyWindowSize(driver);
+        RequestInterceptor.install(driver);
+        logger.debug("Kept driver reused for thread: {}", Thread.currentThread().getId());
+    }
+
     /**
      * Quit all drivers (for cleanup in TestNG hooks)
      */
@@ -285,6 +469,9 @@ public class EnterpriseWebDriverManager {
         });
         driverMap.clear();
         driverThreadLocal.remove();
+        throttleThreadLocal.remove();
+        networkThrottledThreadLocal.remove();
+        sessionOverridesThreadLocal.remove();
         logger.info("All drivers quit successfully");
     }
 
@@ -306,6 +493,7 @@ public class EnterpriseWebDriverManager {
         if (baseUrl == null || baseUrl.isEmpty()) {
             baseUrl = environment.getBaseUrl();
         }
+        baseUrl = FixtureServer.resolve(baseUrl);
         
         WebDriver driver = getDriver();
         if (driver != null) {
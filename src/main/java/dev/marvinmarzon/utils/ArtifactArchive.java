@@ -0,0 +1,347 @@
+package dev.marvinmarzon.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only artifact archive for screenshots and attachments
+ * Artifacts are appended into a few large segment files through FileChannel positional writes,
+ * with a separate offset index, instead of thousands of small files under target/.
+ * Readers memory-map the segments and slice artifacts out by offset. Several JVMs (parallel forks,
+ * shards on one machine) may share a directory: each segment is created by exactly one process, and
+ * index entries are appended under an exclusive lock on the index file.
+ */
+public class ArtifactArchive implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactArchive.class);
+    private static final String INDEX_FILE = "index.idx";
+    private static final String SEGMENT_FORMAT = "segment-%05d.dat";
+    private static final int RECORD_MAGIC = 0x41524331; // "ARC1"
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/png", "png",
+        "image/jpeg", "jpg",
+        "application/json", "json",
+        "text/plain", "txt");
+
+    private static volatile ArtifactArchive defaultArchive;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final FileChannel indexChannel;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private final Object reserveLock = new Object();
+    private FileChannel currentSegment;
+    private long currentPosition;
+
+    /**
+     * Location of one artifact inside the archive
+     */
+    public record Entry(String name, String contentType, int segment, long offset, int length) {
+    }
+
+    private record Reservation(int segment, FileChannel channel, long recordOffset) {
+    }
+
+    private ArtifactArchive(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        // Continue after the existing segments so earlier runs stay readable
+        openNextSegment();
+    }
+
+    /**
+     * Open an archive for appending in the given directory
+     */
+    public static ArtifactArchive open(Path directory, long segmentSize) throws IOException {
+        return new ArtifactArchive(directory, segmentSize);
+    }
+
+    /**
+     * Get the shared archive configured via test.artifact.archive.* properties
+     */
+    public static ArtifactArchive getDefault() throws IOException {
+        ArtifactArchive archive = defaultArchive;
+        if (archive == null) {
+            synchronized (ArtifactArchive.class) {
+                archive = defaultArchive;
+                if (archive == null) {
+                    archive = open(Paths.get(TestConfigManager.getArtifactArchivePath()),
+                                   TestConfigManager.getArtifactSegmentSizeMb() * 1024L * 1024L);
+                    defaultArchive = archive;
+                    logger.info("Artifact archive opened: {}", archive.directory.toAbsolutePath());
+                }
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * Keep a copy of a scenario attachment (screenshot, flight recording, HAR, page metrics, log)
+     * in the shared archive when test.artifact.backend=archive
+     *
+     * @return the archive reference, or null with the files backend or when archiving failed
+     */
+    public static String archiveAttachment(String scenarioName, String label, String contentType, byte[] data) {
+        if (!TestConfigManager.isArtifactArchiveBackend() || data == null) {
+            return null;
+        }
+        String name = String.format("%s_%s_%d_%s.%s",
+                                    scenarioName.replaceAll("[^a-zA-Z0-9]", "_"),
+                                    LocalDateTime.now().format(TIMESTAMP_FORMAT),
+                                    Thread.currentThread().getId(),
+                                    label.replaceAll("[^a-zA-Z0-9]", "_"),
+                                    EXTENSIONS.getOrDefault(contentType, "bin"));
+        try {
+            getDefault().append(name, contentType, data);
+            return reference(name);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to archive attachment {} for scenario: {}", label, scenarioName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reference to an artifact of the shared archive, as logged and attached
+     */
+    public static String reference(String name) {
+        return String.format("archive:%s#%s", TestConfigManager.getArtifactArchivePath(), name);
+    }
+
+    /**
+     * Close the shared archive if it was opened (for suite teardown)
+     */
+    public static void closeDefault() {
+        synchronized (ArtifactArchive.class) {
+            if (defaultArchive != null) {
+                try {
+                    defaultArchive.close();
+                } catch (IOException e) {
+                    logger.error("Failed to close artifact archive", e);
+                }
+                defaultArchive = null;
+            }
+        }
+    }
+
+    /**
+     * Append an artifact and return its index entry.
+     * Space is reserved under a short lock; the payload itself is written without holding it,
+     * and the index entry is only appended once the payload is on disk.
+     */
+    public Entry append(String name, String contentType, byte[] data) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+        // Lengths are stored as unsigned shorts; a longer value would corrupt the record and the index
+        if (nameBytes.length > MAX_STRING_BYTES || typeBytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Artifact name or content type exceeds " + MAX_STRING_BYTES + " bytes: "
+                + name.substring(0, Math.min(name.length(), 64)) + "...");
+        }
+        int headerLength = 4 + 2 + nameBytes.length + 2 + typeBytes.length + 4;
+        int recordLength = headerLength + data.length;
+
+        Reservation reservation = reserve(recordLength);
+
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(RECORD_MAGIC)
+              .putShort((short) nameBytes.length).put(nameBytes)
+              .putShort((short) typeBytes.length).put(typeBytes)
+              .putInt(data.length).put(data)
+              .flip();
+        writeFully(reservation.channel(), record, reservation.recordOffset());
+
+        Entry entry = new Entry(name, contentType, reservation.segment(),
+                                reservation.recordOffset() + headerLength, data.length);
+        appendIndex(entry, nameBytes, typeBytes);
+        logger.debug("Archived artifact {} ({} bytes) in segment {}", name, data.length, entry.segment());
+        return entry;
+    }
+
+    /**
+     * Flush segments and index to the storage device, then close them
+     * Segments are forced before the index so no index entry survives a crash without its data.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (reserveLock) {
+            for (FileChannel segment : segments) {
+                if (segment != null && segment.isOpen()) {
+                    segment.force(true);
+                    segment.close();
+                }
+            }
+            if (indexChannel.isOpen()) {
+                indexChannel.force(true);
+                indexChannel.close();
+            }
+        }
+    }
+
+    private Reservation reserve(int recordLength) throws IOException {
+        synchronized (reserveLock) {
+            if (currentPosition > 0 && currentPosition + recordLength > segmentSize) {
+                openNextSegment();
+            }
+            Reservation reservation = new Reservation(segments.size() - 1, currentSegment, currentPosition);
+            currentPosition += recordLength;
+            return reservation;
+        }
+    }
+
+    /**
+     * Create the next free segment; CREATE_NEW is atomic, so a number taken by another JVM is skipped
+     */
+    private void openNextSegment() throws IOException {
+        while (true) {
+            try {
+                currentSegment = FileChannel.open(segmentPath(directory, segments.size()),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                segments.add(null);
+            }
+        }
+        segments.add(currentSegment);
+        currentPosition = 0;
+    }
+
+    private void appendIndex(Entry entry, byte[] nameBytes, byte[] typeBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 + 4 + 2 + nameBytes.length + 2 + typeBytes.length);
+        buffer.putInt(entry.segment()).putLong(entry.offset()).putInt(entry.length())
+              .putShort((short) nameBytes.length).put(nameBytes)
+              .putShort((short) typeBytes.length).put(typeBytes)
+              .flip();
+        // The monitor serializes this JVM's writers (file locks are per process); the lock keeps other JVMs'
+        // entries from interleaving with this one
+        synchronized (indexChannel) {
+            try (FileLock lock = indexChannel.lock()) {
+                while (buffer.hasRemaining()) {
+                    indexChannel.write(buffer);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format(SEGMENT_FORMAT, index));
+    }
+
+    /**
+     * Open a read-only view of an archive directory
+     */
+    public static Reader reader(Path directory) throws IOException {
+        return new Reader(directory);
+    }
+
+    /**
+     * Read-only archive view backed by memory-mapped segments
+     */
+    public static class Reader implements Closeable {
+        private final Path directory;
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+        private final Map<Integer, MappedByteBuffer> mappedSegments = new LinkedHashMap<>();
+
+        private Reader(Path directory) throws IOException {
+            this.directory = directory;
+            loadIndex();
+        }
+
+        /**
+         * All artifacts in append order; later artifacts with the same name replace earlier ones
+         */
+        public List<Entry> entries() {
+            return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+        }
+
+        public Entry find(String name) {
+            return entries.get(name);
+        }
+
+        public byte[] read(Entry entry) throws IOException {
+            MappedByteBuffer segment = mappedSegments.get(entry.segment());
+            if (segment == null) {
+                try (FileChannel channel = FileChannel.open(segmentPath(directory, entry.segment()),
+                                                            StandardOpenOption.READ)) {
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mappedSegments.put(entry.segment(), segment);
+            }
+            byte[] data = new byte[entry.length()];
+            segment.get(Math.toIntExact(entry.offset()), data);
+            return data;
+        }
+
+        public byte[] read(String name) throws IOException {
+            Entry entry = find(name);
+            return entry != null ? read(entry) : null;
+        }
+
+        @Override
+        public void close() {
+            mappedSegments.clear();
+        }
+
+        private void loadIndex() throws IOException {
+            Path indexFile = directory.resolve(INDEX_FILE);
+            if (!Files.exists(indexFile)) {
+                throw new IOException("Artifact archive index not found: " + indexFile);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            while (buffer.remaining() >= 4 + 8 + 4 + 2) {
+                int segment = buffer.getInt();
+                long offset = buffer.getLong();
+                int length = buffer.getInt();
+                String name = readString(buffer);
+                if (name == null || buffer.remaining() < 2) {
+                    break;
+                }
+                String contentType = readString(buffer);
+                if (contentType == null) {
+                    break;
+                }
+                entries.put(name, new Entry(name, contentType, segment, offset, length));
+            }
+            logger.debug("Loaded {} artifact index entries from: {}", entries.size(), indexFile);
+        }
+
+        private static String readString(ByteBuffer buffer) {
+            int length = buffer.getShort() & 0xFFFF;
+            if (buffer.remaining() < length) {
+                return null; // Truncated trailing entry from an interrupted run
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
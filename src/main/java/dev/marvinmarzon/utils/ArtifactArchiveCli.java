@@ -0,0 +1,74 @@
+package dev.marvinmarzon.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool to list and extract artifacts from an artifact archive
+ *
+ * Usage:
+ *   list        &lt;archiveDir&gt;
+ *   extract     &lt;archiveDir&gt; &lt;artifactName&gt; [outputFile]
+ *   extract-all &lt;archiveDir&gt; &lt;outputDir&gt;
+ */
+public class ArtifactArchiveCli {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            printUsage();
+            System.exit(1);
+        }
+
+        Path archiveDir = Paths.get(args[1]);
+        try (ArtifactArchive.Reader reader = ArtifactArchive.reader(archiveDir)) {
+            switch (args[0]) {
+                case "list":
+                    for (ArtifactArchive.Entry entry : reader.entries()) {
+                        System.out.printf("%-60s %-20s %10d bytes (segment %d @ %d)%n",
+                                          entry.name(), entry.contentType(), entry.length(),
+                                          entry.segment(), entry.offset());
+                    }
+                    break;
+
+                case "extract":
+                    if (args.length < 3) {
+                        printUsage();
+                        System.exit(1);
+                    }
+                    byte[] data = reader.read(args[2]);
+                    if (data == null) {
+                        System.err.println("Artifact not found: " + args[2]);
+                        System.exit(2);
+                    }
+                    Path output = Paths.get(args.length > 3 ? args[3] : args[2]);
+                    Files.write(output, data);
+                    System.out.println("Extracted " + args[2] + " to " + output.toAbsolutePath());
+                    break;
+
+                case "extract-all":
+                    if (args.length < 3) {
+                        printUsage();
+                        System.exit(1);
+                    }
+                    Path outputDir = Files.createDirectories(Paths.get(args[2]));
+                    for (ArtifactArchive.Entry entry : reader.entries()) {
+                        Files.write(outputDir.resolve(entry.name()), reader.read(entry));
+                    }
+                    System.out.println("Extracted " + reader.entries().size() + " artifacts to " + outputDir.toAbsolutePath());
+                    break;
+
+                default:
+                    printUsage();
+                    System.exit(1);
+            }
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: ArtifactArchiveCli list <archiveDir>");
+        System.err.println("       ArtifactArchiveCli extract <archiveDir> <artifactName> [outputFile]");
+        System.err.println("       ArtifactArchiveCli extract-all <archiveDir> <outputDir>");
+    }
+}
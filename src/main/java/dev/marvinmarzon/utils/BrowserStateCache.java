@@ -0,0 +1,271 @@
+package dev.marvinmarzon.utils;
+
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.messages.types.Background;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Examples;
+import io.cucumber.messages.types.Feature;
+import io.cucumber.messages.types.FeatureChild;
+import io.cucumber.messages.types.GherkinDocument;
+import io.cucumber.messages.types.RuleChild;
+import io.cucumber.messages.types.Scenario;
+import io.cucumber.messages.types.TableRow;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Browser state captured after a feature's Background and restored into later sessions
+ * Restoring puts a fresh driver on the Background's page with its cookies and storage, so the
+ * Background's own navigation becomes redundant and is skipped by {@link #navigate(WebDriver, String)}.
+ */
+public class BrowserStateCache {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserStateCache.class);
+
+    private static final BackgroundScope NO_BACKGROUND = new BackgroundScope(0, 0);
+    private static final GherkinParser PARSER = GherkinParser.builder()
+        .includeSource(false)
+        .includePickles(false)
+        .build();
+
+    private static final String READ_STORAGE =
+        "var storage = arguments[0] === 'local' ? window.localStorage : window.sessionStorage;"
+        + "var result = {};"
+        + "for (var i = 0; i < storage.length; i++) { var key = storage.key(i); result[key] = storage.getItem(key); }"
+        + "return result;";
+    private static final String WRITE_STORAGE =
+        "var storage = arguments[0] === 'local' ? window.localStorage : window.sessionStorage;"
+        + "var entries = arguments[1];"
+        + "for (var key in entries) { storage.setItem(key, entries[key]); }";
+
+    private static final Map<String, BrowserState> states = new ConcurrentHashMap<>();
+    private static final Map<URI, Map<Long, BackgroundScope>> backgrounds = new ConcurrentHashMap<>();
+    private static final AtomicInteger navigationsSkipped = new AtomicInteger();
+    private static final AtomicInteger statesCaptured = new AtomicInteger();
+    private static final AtomicInteger statesRestored = new AtomicInteger();
+    private static final AtomicInteger restoreReloads = new AtomicInteger();
+
+    /**
+     * URL, cookies, local storage and session storage of one browser session
+     */
+    public record BrowserState(String url, Set<Cookie> cookies,
+                               Map<String, String> localStorage, Map<String, String> sessionStorage) {
+        boolean hasStorage() {
+            return !cookies.isEmpty() || !localStorage.isEmpty() || !sessionStorage.isEmpty();
+        }
+    }
+
+    /**
+     * Background steps that run before a scenario: the feature's Background followed by its Rule's
+     * Background, and the line of the innermost one (scenarios sharing it share the captured state)
+     */
+    public record BackgroundScope(int steps, long line) {
+    }
+
+    private BrowserStateCache() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Navigate to the URL unless the browser is already showing it fully loaded
+     *
+     * @return true if a page load happened, false if the navigation was redundant and skipped
+     */
+    public static boolean navigate(WebDriver driver, String url) {
+        if (TestConfigManager.isSkipRedundantNavigation() && isLoaded(driver, url)) {
+            navigationsSkipped.incrementAndGet();
+            logger.info("Skipping redundant navigation, already on: {}", url);
+            return false;
+        }
+        driver.get(url);
+        return true;
+    }
+
+    public static boolean isCaptured(String key) {
+        return states.containsKey(key);
+    }
+
+    /**
+     * Capture the current session state under the given key
+     */
+    public static void capture(String key, WebDriver driver) {
+        try {
+            BrowserState state = new BrowserState(driver.getCurrentUrl(),
+                                                  new LinkedHashSet<>(driver.manage().getCookies()),
+                                                  readStorage(driver, "local"),
+                                                  readStorage(driver, "session"));
+            states.put(key, state);
+            statesCaptured.incrementAndGet();
+            logger.debug("Captured browser state for {}: {} ({} cookies)", key, state.url(), state.cookies().size());
+        } catch (WebDriverException e) {
+            logger.warn("Could not capture browser state for {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Restore a captured state into the driver's session
+     *
+     * @return false if no state was captured for the key
+     */
+    public static boolean restore(String key, WebDriver driver) {
+        BrowserState state = states.get(key);
+        if (state == null) {
+            return false;
+        }
+
+        driver.get(state.url());
+        if (state.hasStorage()) {
+            for (Cookie cookie : state.cookies()) {
+                try {
+                    driver.manage().addCookie(cookie);
+                } catch (WebDriverException e) {
+                    logger.debug("Could not restore cookie {}: {}", cookie.getName(), e.getMessage());
+                }
+            }
+            writeStorage(driver, "local", state.localStorage());
+            writeStorage(driver, "session", state.sessionStorage());
+
+            // Reload so the page sees the restored cookies and storage from the start
+            driver.navigate().refresh();
+            restoreReloads.incrementAndGet();
+        }
+        statesRestored.incrementAndGet();
+        logger.info("Restored browser state for {}: {}", key, state.url());
+        return true;
+    }
+
+    /**
+     * Background of the scenario (or outline example row) at the given line, with 0 steps if it has none
+     */
+    public static BackgroundScope background(URI featureUri, int scenarioLine) {
+        return backgrounds.computeIfAbsent(featureUri, BrowserStateCache::parseBackgrounds)
+                          .getOrDefault((long) scenarioLine, NO_BACKGROUND);
+    }
+
+    public static void logStatistics() {
+        int skipped = navigationsSkipped.get();
+        if (skipped == 0 && statesRestored.get() == 0) {
+            return;
+        }
+        logger.info("Browser state: {} captured, {} restored, {} redundant navigations skipped, {} restore reloads",
+                   statesCaptured.get(), statesRestored.get(), skipped, restoreReloads.get());
+        logger.info("Page loads avoided: {}", skipped - restoreReloads.get());
+    }
+
+    private static boolean isLoaded(WebDriver driver, String url) {
+        try {
+            return normalize(driver.getCurrentUrl()).equals(normalize(url))
+                && "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private static String normalize(String url) {
+        return url != null && url.endsWith("/") ? url.substring(0, url.length() - 1) : String.valueOf(url);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readStorage(WebDriver driver, String type) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(READ_STORAGE, type);
+            Map<String, String> entries = new HashMap<>();
+            if (result instanceof Map) {
+                ((Map<String, Object>) result).forEach((key, value) -> entries.put(key, String.valueOf(value)));
+            }
+            return entries;
+        } catch (WebDriverException e) {
+            // Storage is not accessible on some pages (e.g. about:blank, sandboxed frames)
+            return Map.of();
+        }
+    }
+
+    private static void writeStorage(WebDriver driver, String type, Map<String, String> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE, type, entries);
+        } catch (WebDriverException e) {
+            logger.debug("Could not restore {} storage: {}", type, e.getMessage());
+        }
+    }
+
+    /**
+     * Background scope of every scenario and example row line of the feature, from the parsed Gherkin
+     * document so localized keywords, Rule backgrounds, doc strings and data tables are handled as Cucumber does
+     */
+    private static Map<Long, BackgroundScope> parseBackgrounds(URI featureUri) {
+        Map<Long, BackgroundScope> scopes = new HashMap<>();
+        if (!"file".equals(featureUri.getScheme())) {
+            return scopes;
+        }
+        Optional<Feature> feature;
+        try (Stream<Envelope> envelopes = PARSER.parse(Paths.get(featureUri))) {
+            feature = envelopes.map(Envelope::getGherkinDocument)
+                               .flatMap(Optional::stream)
+                               .findFirst()
+                               .flatMap(GherkinDocument::getFeature);
+        } catch (IOException e) {
+            logger.warn("Could not read feature file: {}", featureUri, e);
+            return scopes;
+        }
+        if (feature.isEmpty()) {
+            return scopes;
+        }
+
+        BackgroundScope featureScope = NO_BACKGROUND;
+        for (FeatureChild child : feature.get().getChildren()) {
+            if (child.getBackground().isPresent()) {
+                featureScope = extend(NO_BACKGROUND, child.getBackground().get());
+            }
+            if (child.getScenario().isPresent()) {
+                register(scopes, child.getScenario().get(), featureScope);
+            }
+            if (child.getRule().isPresent()) {
+                BackgroundScope ruleScope = featureScope;
+                for (RuleChild ruleChild : child.getRule().get().getChildren()) {
+                    if (ruleChild.getBackground().isPresent()) {
+                        ruleScope = extend(featureScope, ruleChild.getBackground().get());
+                    }
+                    if (ruleChild.getScenario().isPresent()) {
+                        register(scopes, ruleChild.getScenario().get(), ruleScope);
+                    }
+                }
+            }
+        }
+        return scopes;
+    }
+
+    private static BackgroundScope extend(BackgroundScope outer, Background background) {
+        return new BackgroundScope(outer.steps() + background.getSteps().size(), background.getLocation().getLine());
+    }
+
+    /**
+     * Pickles of a Scenario Outline carry the line of their example row
+     */
+    private static void register(Map<Long, BackgroundScope> scopes, Scenario scenario, BackgroundScope scope) {
+        scopes.put(scenario.getLocation().getLine(), scope);
+        for (Examples examples : scenario.getExamples()) {
+            for (TableRow row : examples.getTableBody()) {
+                scopes.put(row.getLocation().getLine(), scope);
+            }
+        }
+    }
+}
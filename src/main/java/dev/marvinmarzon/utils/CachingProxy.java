@@ -0,0 +1,753 @@
+package dev.marvinmarzon.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Embedded HTTP caching proxy shared by all local browser sessions of the suite
+ * Responses are cached in a memory LRU backed by a disk tier (test.proxy.cache.dir) that survives
+ * between runs, so parallel sessions and later runs do not download the same assets again.
+ * Freshness follows Cache-Control, Expires and Last-Modified; test.proxy.cache.override.ttl.seconds
+ * makes scripts, stylesheets, fonts and images fresh for a fixed time whatever the origin says.
+ * HTTPS is tunneled through CONNECT without caching, since its content cannot be read without
+ * intercepting TLS. Requests carrying cookies bypass the cache and responses setting cookies are never
+ * stored, so no session state is shared between browsers.
+ */
+public final class CachingProxy {
+    private static final Logger logger = LoggerFactory.getLogger(CachingProxy.class);
+
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "proxy-connection", "keep-alive", "te",
+        "trailer", "transfer-encoding", "upgrade", "proxy-authorization", "proxy-authenticate", "content-length",
+        "host", "expect");
+    private static final List<String> STATIC_TYPES = List.of("text/css", "javascript", "font/", "image/",
+        "application/font", "application/wasm");
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+
+    private static CachingProxy instance;
+
+    // Suite-wide statistics
+    private static final LongAdder memoryHits = new LongAdder();
+    private static final LongAdder diskHits = new LongAdder();
+    private static final LongAdder revalidated = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder bypassed = new LongAdder();
+    private static final LongAdder bytesSaved = new LongAdder();
+    private static final LongAdder bytesFetched = new LongAdder();
+
+    static {
+        SuiteMetrics.registerGauge("suite_proxy_cache_hit_ratio_percent", "Cacheable proxy requests served from cache",
+                                   () -> Math.round(hitRatio() * 100));
+        SuiteMetrics.registerGauge("suite_proxy_cache_bytes_saved", "Response bytes the caching proxy served from cache",
+                                   CachingProxy::bytesSaved);
+    }
+
+    /**
+     * A cached response; times are epoch milliseconds
+     */
+    record CachedResponse(int status, List<String[]> headers, byte[] body, long storedAt, long expiresAt) {
+        boolean isFresh(long now) {
+            return now < expiresAt;
+        }
+
+        String header(String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+
+        long sizeInBytes() {
+            long size = 64L + body.length;
+            for (String[] header : headers) {
+                size += 2L * (header[0].length() + header[1].length());
+            }
+            return size;
+        }
+    }
+
+    private record ProxyResponse(int status, List<String[]> headers, byte[] body, String cacheStatus) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient upstream = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(UPSTREAM_TIMEOUT)
+        .build();
+    private final long overrideTtlSeconds;
+    private final MemoryTier memory;
+    private final DiskTier disk;
+
+    private CachingProxy(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+        this.overrideTtlSeconds = TestConfigManager.getProxyCacheOverrideTtlSeconds();
+        this.memory = new MemoryTier(TestConfigManager.getProxyCacheMemoryBytes());
+        this.disk = new DiskTier(Paths.get(TestConfigManager.getProxyCacheDir()), TestConfigManager.getProxyCacheDiskBytes());
+    }
+
+    /**
+     * Address ("127.0.0.1:port") of the running proxy for local browsers, starting it on first use;
+     * null when test.proxy.cache.enabled=false or the browsers run on a Grid, which cannot reach it
+     */
+    public static synchronized String address() {
+        if (!TestConfigManager.isProxyCacheEnabled() || TestConfigManager.isRemoteExecution()) {
+            return null;
+        }
+        if (instance == null) {
+            instance = start(TestConfigManager.getProxyCachePort());
+        }
+        return "127.0.0.1:" + instance.serverSocket.getLocalPort();
+    }
+
+    public static synchronized void stop() {
+        if (instance != null) {
+            try {
+                instance.serverSocket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing caching proxy: {}", e.getMessage());
+            }
+            instance.connections.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Hit ratio of cacheable requests served by the proxy so far, 0 when there were none
+     */
+    public static double hitRatio() {
+        long hits = hits();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Requests answered from the cache so far, including revalidated ones
+     */
+    public static long hits() {
+        return memoryHits.sum() + diskHits.sum() + revalidated.sum();
+    }
+
+    public static long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Log hit ratio and bytes saved for the run
+     */
+    public static void logStatistics() {
+        long total = memoryHits.sum() + diskHits.sum() + revalidated.sum() + misses.sum() + bypassed.sum();
+        if (total == 0) {
+            return;
+        }
+        logger.info("Caching proxy: {} requests, {} memory hits, {} disk hits, {} revalidated, {} misses, {} not cacheable",
+                   total, memoryHits.sum(), diskHits.sum(), revalidated.sum(), misses.sum(), bypassed.sum());
+        logger.info("Caching proxy hit ratio: {}%, {} KB saved, {} KB fetched",
+                   String.format("%.1f", hitRatio() * 100), bytesSaved.sum() / 1024, bytesFetched.sum() / 1024);
+    }
+
+    private static CachingProxy start(int port) {
+        try {
+            ServerSocket socket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+            CachingProxy proxy = new CachingProxy(socket);
+            Thread acceptor = new Thread(proxy::acceptLoop, "caching-proxy");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            logger.info("Caching proxy listening on 127.0.0.1:{} (cache: {})", socket.getLocalPort(),
+                       TestConfigManager.getProxyCacheDir());
+            return proxy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start caching proxy on port " + port, e);
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                connections.execute(() -> handleConnection(client));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.debug("Caching proxy accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handleConnection(Socket client) {
+        try (client) {
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            OutputStream out = new BufferedOutputStream(client.getOutputStream());
+            while (true) {
+                String requestLine = readLine(in);
+                if (requestLine == null || requestLine.isEmpty()) {
+                    return;
+                }
+                String[] parts = requestLine.split(" ");
+                if (parts.length != 3) {
+                    writeResponse(out, new ProxyResponse(400, List.of(), new byte[0], "ERROR"), false);
+                    return;
+                }
+                List<String[]> headers = readHeaders(in);
+                if ("CONNECT".equals(parts[0])) {
+                    tunnel(client, in, out, parts[1]);
+                    return;
+                }
+
+                byte[] body = readBody(in, headers);
+                ProxyResponse response = serve(parts[0], parts[1], headers, body);
+                writeResponse(out, response, "HEAD".equals(parts[0]));
+                out.flush();
+                if ("HTTP/1.0".equals(parts[2]) || "close".equalsIgnoreCase(header(headers, "Proxy-Connection"))
+                        || "close".equalsIgnoreCase(header(headers, "Connection"))) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.trace("Caching proxy connection closed: {}", e.getMessage());
+        }
+    }
+
+    private ProxyResponse serve(String method, String target, List<String[]> headers, byte[] body) {
+        URI uri;
+        try {
+            uri = URI.create(target);
+        } catch (IllegalArgumentException e) {
+            return new ProxyResponse(400, List.of(), new byte[0], "ERROR");
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme())) {
+            return new ProxyResponse(400, List.of(), new byte[0], "ERROR");
+        }
+
+        boolean cacheable = ("GET".equals(method) || "HEAD".equals(method))
+            && header(headers, "Range") == null && header(headers, "Authorization") == null
+            && header(headers, "Cookie") == null;
+        if (!cacheable) {
+            bypassed.increment();
+            return fetch(method, uri, headers, body, "BYPASS");
+        }
+
+        // Browsers send the same Accept-Encoding every time, but a gzip body must not reach a client
+        // that did not ask for it
+        String key = target + "|" + String.valueOf(header(headers, "Accept-Encoding"));
+        long now = System.currentTimeMillis();
+        CachedResponse cached = memory.get(key);
+        boolean fromDisk = false;
+        if (cached == null) {
+            cached = disk.get(key);
+            fromDisk = cached != null;
+            if (fromDisk) {
+                memory.put(key, cached);
+            }
+        }
+
+        if (cached != null && cached.isFresh(now)) {
+            (fromDisk ? diskHits : memoryHits).increment();
+            bytesSaved.add(cached.body().length);
+            return fromCache(cached, now, "HIT");
+        }
+
+        List<String[]> upstreamHeaders = new ArrayList<>(headers);
+        if (cached != null) {
+            // Revalidate our copy; the browser's own validators refer to its private cache
+            upstreamHeaders.removeIf(header -> header[0].equalsIgnoreCase("If-None-Match")
+                || header[0].equalsIgnoreCase("If-Modified-Since"));
+            if (cached.header("ETag") != null) {
+                upstreamHeaders.add(new String[] {"If-None-Match", cached.header("ETag")});
+            }
+            if (cached.header("Last-Modified") != null) {
+                upstreamHeaders.add(new String[] {"If-Modified-Since", cached.header("Last-Modified")});
+            }
+        }
+        ProxyResponse response = fetch("GET", uri, upstreamHeaders, new byte[0], "MISS");
+
+        if (cached != null && response.status() == 304) {
+            // Still valid: extend its lifetime with the new freshness information
+            long ttl = ttlMillis(response.headers(), cached.header("Content-Type"), overrideTtlSeconds, now);
+            CachedResponse refreshed = new CachedResponse(cached.status(), cached.headers(), cached.body(), now,
+                                                          now + Math.max(0, ttl));
+            store(key, refreshed);
+            revalidated.increment();
+            bytesSaved.add(cached.body().length);
+            return fromCache(refreshed, now, "REVALIDATED");
+        }
+
+        misses.increment();
+        if (response.status() == 200) {
+            long ttl = ttlMillis(response.headers(), header(response.headers(), "Content-Type"), overrideTtlSeconds, now);
+            boolean hasValidators = header(response.headers(), "ETag") != null
+                || header(response.headers(), "Last-Modified") != null;
+            if (ttl > 0 || ttl == 0 && hasValidators) {
+                store(key, new CachedResponse(200, response.headers(), response.body(), now, now + ttl));
+            }
+        }
+        return response;
+    }
+
+    private ProxyResponse fetch(String method, URI uri, List<String[]> headers, byte[] body, String cacheStatus) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(UPSTREAM_TIMEOUT)
+            .method(method, body.length == 0 ? HttpRequest.BodyPublishers.noBody()
+                                             : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String[] header : headers) {
+            if (!HOP_BY_HOP.contains(header[0].toLowerCase(Locale.ROOT))) {
+                try {
+                    request.header(header[0], header[1]);
+                } catch (IllegalArgumentException e) {
+                    // Restricted by the HTTP client, e.g. Date or Via
+                    logger.trace("Dropping request header {}", header[0]);
+                }
+            }
+        }
+        try {
+            HttpResponse<byte[]> response = upstream.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            List<String[]> responseHeaders = new ArrayList<>();
+            response.headers().map().forEach((name, values) -> {
+                if (!HOP_BY_HOP.contains(name.toLowerCase(Locale.ROOT)) && !name.startsWith(":")) {
+                    values.forEach(value -> responseHeaders.add(new String[] {name, value}));
+                }
+            });
+            bytesFetched.add(response.body().length);
+            return new ProxyResponse(response.statusCode(), responseHeaders, response.body(), cacheStatus);
+        } catch (IOException e) {
+            logger.debug("Caching proxy could not fetch {}: {}", uri, e.getMessage());
+            return new ProxyResponse(502, List.of(), new byte[0], "ERROR");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ProxyResponse(502, List.of(), new byte[0], "ERROR");
+        }
+    }
+
+    private ProxyResponse fromCache(CachedResponse cached, long now, String cacheStatus) {
+        List<String[]> headers = new ArrayList<>(cached.headers());
+        headers.removeIf(header -> header[0].equalsIgnoreCase("Age"));
+        headers.add(new String[] {"Age", String.valueOf((now - cached.storedAt()) / 1000)});
+        return new ProxyResponse(cached.status(), headers, cached.body(), cacheStatus);
+    }
+
+    private void store(String key, CachedResponse response) {
+        memory.put(key, response);
+        disk.put(key, response);
+    }
+
+    /**
+     * Freshness lifetime in milliseconds; negative when the response must not be stored
+     * A negative overrideTtlSeconds keeps the origin's freshness; now is the reference when there is no Date.
+     */
+    static long ttlMillis(List<String[]> headers, String contentType, long overrideTtlSeconds, long now) {
+        if (header(headers, "Set-Cookie") != null) {
+            return -1;
+        }
+        if (overrideTtlSeconds >= 0 && isStaticAsset(contentType)) {
+            return overrideTtlSeconds * 1000;
+        }
+        String vary = header(headers, "Vary");
+        if (vary != null && !vary.trim().equalsIgnoreCase("Accept-Encoding")) {
+            return -1;
+        }
+        String cacheControl = header(headers, "Cache-Control");
+        if (cacheControl != null) {
+            String directives = cacheControl.toLowerCase(Locale.ROOT);
+            if (directives.contains("no-store") || directives.contains("private")) {
+                return -1;
+            }
+            if (directives.contains("no-cache")) {
+                return 0;
+            }
+            long maxAge = directive(directives, "s-maxage");
+            if (maxAge < 0) {
+                maxAge = directive(directives, "max-age");
+            }
+            if (maxAge >= 0) {
+                return Math.max(0, maxAge - age(headers)) * 1000;
+            }
+        }
+        Long expires = httpDate(header(headers, "Expires"));
+        Long date = httpDate(header(headers, "Date"));
+        long reference = date != null ? date : now;
+        if (expires != null) {
+            return Math.max(0, expires - reference);
+        }
+        // Heuristic freshness: a tenth of the time since the last modification
+        Long lastModified = httpDate(header(headers, "Last-Modified"));
+        return lastModified != null ? Math.max(0, (reference - lastModified) / 10) : 0;
+    }
+
+    private static boolean isStaticAsset(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return STATIC_TYPES.stream().anyMatch(type::contains);
+    }
+
+    private static long directive(String directives, String name) {
+        for (String directive : directives.split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.startsWith(name + "=")) {
+                try {
+                    return Long.parseLong(trimmed.substring(name.length() + 1).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long age(List<String[]> headers) {
+        try {
+            String age = header(headers, "Age");
+            return age == null ? 0 : Long.parseLong(age.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Long httpDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            // e.g. "Expires: 0", which means already expired
+            return 0L;
+        }
+    }
+
+    private static void tunnel(Socket client, InputStream in, OutputStream out, String target) throws IOException {
+        int colon = target.lastIndexOf(':');
+        String host = colon > 0 ? target.substring(0, colon) : target;
+        int port = colon > 0 ? Integer.parseInt(target.substring(colon + 1)) : 443;
+        bypassed.increment();
+        Socket server = new Socket();
+        try {
+            server.connect(new InetSocketAddress(host, port), (int) UPSTREAM_TIMEOUT.toMillis());
+        } catch (IOException e) {
+            server.close();
+            out.write("HTTP/1.1 502 Bad Gateway\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return;
+        }
+        // Once the tunnel is established a broken pipe just closes the connection
+        try (server) {
+            out.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            Thread upload = Thread.ofVirtual().start(() -> pipe(in, server));
+            try {
+                server.getInputStream().transferTo(client.getOutputStream());
+            } finally {
+                upload.interrupt();
+            }
+        }
+    }
+
+    private static void pipe(InputStream in, Socket server) {
+        try {
+            in.transferTo(server.getOutputStream());
+            server.shutdownOutput();
+        } catch (IOException e) {
+            // The other direction closes the sockets
+        }
+    }
+
+    private static void writeResponse(OutputStream out, ProxyResponse response, boolean headRequest) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(response.status()).append(' ').append(reason(response.status())).append("\r\n");
+        for (String[] header : response.headers()) {
+            head.append(header[0]).append(": ").append(header[1]).append("\r\n");
+        }
+        head.append("Content-Length: ").append(response.body().length).append("\r\n");
+        head.append("X-Cache: ").append(response.cacheStatus()).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        if (!headRequest) {
+            out.write(response.body());
+        }
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 502 -> "Bad Gateway";
+            default -> "Status";
+        };
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static List<String[]> readHeaders(InputStream in) throws IOException {
+        List<String[]> headers = new ArrayList<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.add(new String[] {line.substring(0, colon).trim(), line.substring(colon + 1).trim()});
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] readBody(InputStream in, List<String[]> headers) throws IOException {
+        if ("chunked".equalsIgnoreCase(header(headers, "Transfer-Encoding"))) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            String sizeLine;
+            // A truncated body ends at the end of the stream
+            while ((sizeLine = readLine(in)) != null) {
+                int size = chunkSize(sizeLine);
+                if (size == 0) {
+                    readHeaders(in);
+                    break;
+                }
+                body.write(in.readNBytes(size));
+                readLine(in);
+            }
+            return body.toByteArray();
+        }
+        String length = header(headers, "Content-Length");
+        return length == null ? new byte[0] : in.readNBytes(Integer.parseInt(length.trim()));
+    }
+
+    private static int chunkSize(String sizeLine) throws IOException {
+        try {
+            return Integer.parseInt(sizeLine.split(";")[0].trim(), 16);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed chunk size: " + sizeLine, e);
+        }
+    }
+
+    private static String header(List<String[]> headers, String name) {
+        for (String[] header : headers) {
+            if (header[0].equalsIgnoreCase(name)) {
+                return header[1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Least recently used responses within a byte budget
+     */
+    private static final class MemoryTier {
+        private final long budgetBytes;
+        private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+        private long usedBytes;
+
+        MemoryTier(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        synchronized CachedResponse get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, CachedResponse response) {
+            // Large bodies would push out many small ones; they stay on disk only
+            if (response.sizeInBytes() > budgetBytes / 8) {
+                // Drop an older copy, or it would shadow the fresh one on disk
+                CachedResponse stale = entries.remove(key);
+                if (stale != null) {
+                    usedBytes -= stale.sizeInBytes();
+                }
+                return;
+            }
+            CachedResponse previous = entries.put(key, response);
+            usedBytes += response.sizeInBytes() - (previous != null ? previous.sizeInBytes() : 0);
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while (usedBytes > budgetBytes && eldest.hasNext()) {
+                usedBytes -= eldest.next().sizeInBytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Responses stored as one file each under the cache directory, evicted least recently used first
+     */
+    private static final class DiskTier {
+        private final Path directory;
+        private final long budgetBytes;
+        private final LinkedHashMap<String, Long> files = new LinkedHashMap<>(256, 0.75f, true);
+        private long usedBytes;
+
+        DiskTier(Path directory, long budgetBytes) {
+            this.directory = directory;
+            this.budgetBytes = budgetBytes;
+            if (budgetBytes <= 0) {
+                return;
+            }
+            try {
+                Files.createDirectories(directory);
+                // Files from earlier runs, oldest first
+                try (Stream<Path> existing = Files.list(directory)) {
+                    existing.filter(file -> file.toString().endsWith(".entry"))
+                        .sorted(Comparator.comparingLong(DiskTier::lastModified))
+                        .forEach(file -> {
+                            long size = file.toFile().length();
+                            files.put(file.getFileName().toString(), size);
+                            usedBytes += size;
+                        });
+                }
+                logger.debug("Caching proxy disk tier: {} entries, {} KB", files.size(), usedBytes / 1024);
+            } catch (IOException e) {
+                logger.warn("Caching proxy disk tier unavailable at {}: {}", directory, e.getMessage());
+            }
+        }
+
+        CachedResponse get(String key) {
+            String name = fileName(key);
+            synchronized (this) {
+                if (files.get(name) == null) {
+                    return null;
+                }
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Files.newInputStream(directory.resolve(name))))) {
+                if (!key.equals(in.readUTF())) {
+                    return null;
+                }
+                int status = in.readInt();
+                int headerCount = in.readInt();
+                List<String[]> headers = new ArrayList<>(headerCount);
+                for (int i = 0; i < headerCount; i++) {
+                    headers.add(new String[] {in.readUTF(), in.readUTF()});
+                }
+                long storedAt = in.readLong();
+                long expiresAt = in.readLong();
+                byte[] body = in.readNBytes(in.readInt());
+                return new CachedResponse(status, headers, body, storedAt, expiresAt);
+            } catch (IOException e) {
+                logger.debug("Dropping unreadable cache entry {}: {}", name, e.getMessage());
+                remove(name);
+                return null;
+            }
+        }
+
+        void put(String key, CachedResponse response) {
+            if (budgetBytes <= 0 || response.body().length > budgetBytes / 4) {
+                return;
+            }
+            String name = fileName(key);
+            Path file = directory.resolve(name);
+            try {
+                Path temp = Files.createTempFile(directory, name, ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeUTF(key);
+                    out.writeInt(response.status());
+                    out.writeInt(response.headers().size());
+                    for (String[] header : response.headers()) {
+                        out.writeUTF(header[0]);
+                        out.writeUTF(header[1]);
+                    }
+                    out.writeLong(response.storedAt());
+                    out.writeLong(response.expiresAt());
+                    out.writeInt(response.body().length);
+                    out.write(response.body());
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                long size = Files.size(file);
+                synchronized (this) {
+                    Long previous = files.put(name, size);
+                    usedBytes += size - (previous != null ? previous : 0);
+                    evict();
+                }
+            } catch (IOException e) {
+                logger.debug("Could not write cache entry for {}: {}", key, e.getMessage());
+            }
+        }
+
+        private void evict() {
+            Iterator<Map.Entry<String, Long>> eldest = files.entrySet().iterator();
+            while (usedBytes > budgetBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                usedBytes -= entry.getValue();
+                eldest.remove();
+                try {
+                    Files.deleteIfExists(directory.resolve(entry.getKey()));
+                } catch (IOException e) {
+                    logger.trace("Could not delete cache entry {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+
+        private synchronized void remove(String name) {
+            Long size = files.remove(name);
+            if (size != null) {
+                usedBytes -= size;
+            }
+        }
+
+        private static String fileName(String key) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(hash, 0, 16) + ".entry";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        private static long lastModified(Path file) {
+            return file.toFile().lastModified();
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package dev.marvinmarzon.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable, typed view of the layered test configuration
+ * All values are parsed once when the snapshot is compiled, so reads are plain field loads.
+ * Reconfiguration compiles a new snapshot instead of mutating this one. Core settings are fields;
+ * each optional feature's settings are grouped in a nested record. A malformed value is logged once
+ * and replaced by its default, so one bad opt-in setting cannot break configuration loading.
+ */
+final class ConfigSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+    // Malformed key=value pairs already reported, so recompiled snapshots do not repeat the warning
+    private static final Set<String> reportedInvalid = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Report plugins and the asynchronous reporting bus
+     */
+    record Reporting(String plugins,
+                     boolean asyncEnabled,
+                     String syncPlugins,
+                     int queueCapacity,
+                     int batchSize,
+                     boolean timingEnabled,
+                     boolean logBufferEnabled) {
+    }
+
+    /**
+     * Live suite telemetry endpoint
+     */
+    record Metrics(boolean enabled, String host, int port) {
+    }
+
+    /**
+     * Step latency profile, baseline and regression gate
+     */
+    record Latency(String profilePath,
+                   String baselinePath,
+                   boolean baselineUpdate,
+                   boolean gateEnabled,
+                   double gateThreshold,
+                   double gateMinDeltaMs,
+                   int gateMinSamples) {
+    }
+
+    /**
+     * Java Flight Recorder recording of the suite
+     */
+    record Jfr(boolean enabled, String settings, String path) {
+    }
+
+    /**
+     * Artifact storage backend
+     */
+    record Artifacts(String backend, String archivePath, int segmentSizeMb) {
+    }
+
+    /**
+     * Navigation skipping and Background snapshots
+     */
+    record Navigation(boolean skipRedundant, boolean backgroundSnapshotEnabled) {
+    }
+
+    /**
+     * Failure flight recorder
+     */
+    record FlightRecorder(boolean enabled,
+                          boolean framesEnabled,
+                          int windowSeconds,
+                          long budgetBytes,
+                          int captureEverySteps,
+                          double frameScale) {
+    }
+
+    /**
+     * Page performance observers and budgets (0 = budget off)
+     */
+    record Performance(boolean observersEnabled,
+                       double pageLoadMaxSeconds,
+                       double imageLoadMaxSeconds,
+                       double ttfbMaxMs,
+                       double fcpMaxMs,
+                       double lcpMaxMs,
+                       double clsMax,
+                       double tbtMaxMs) {
+    }
+
+    /**
+     * Network traffic capture
+     */
+    record NetworkCapture(boolean enabled, int maxEntries) {
+    }
+
+    /**
+     * Local fixture server
+     */
+    record Fixture(String root, int port) {
+    }
+
+    /**
+     * Request interception
+     */
+    record Intercept(boolean enabled, boolean measureEnabled, Map<String, String> rules) {
+    }
+
+    /**
+     * Shared caching proxy
+     */
+    record ProxyCache(boolean enabled,
+                      int port,
+                      String dir,
+                      long memoryBytes,
+                      long diskBytes,
+                      long overrideTtlSeconds) {
+    }
+
+    /**
+     * Browser-driven load test
+     */
+    record LoadTest(boolean enabled,
+                    String tags,
+                    int users,
+                    int rampUpSeconds,
+                    int durationSeconds,
+                    String thinkTimeMs,
+                    boolean reuseDriver,
+                    double maxErrorPercent,
+                    String reportPath) {
+    }
+
+    /**
+     * Visual regression
+     */
+    record Visual(String baselinePath,
+                  double threshold,
+                  int tolerance,
+                  boolean antiAliasing,
+                  boolean earlyExit) {
+    }
+
+    /**
+     * Duration-aware scheduling
+     */
+    record Schedule(boolean enabled, String historyPath, double defaultEstimateSeconds) {
+    }
+
+    /**
+     * Sharding across CI machines
+     */
+    record Shard(int index, int total, String strategy, String historyPath) {
+    }
+
+    /**
+     * Incremental runs
+     */
+    record ResultCache(boolean enabled, boolean forced, String path) {
+    }
+
+    /**
+     * Retries and quarantine of flaky scenarios
+     */
+    record Retry(boolean enabled,
+                 int maxAttempts,
+                 int threadCount,
+                 String statsPath,
+                 boolean quarantineEnabled,
+                 double quarantineThreshold,
+                 int quarantineMinRuns) {
+    }
+
+    /**
+     * Priority classes and early exit
+     */
+    record Priority(String classes, int earlyExitFailures) {
+    }
+
+    /**
+     * Runner startup caches
+     */
+    record Startup(boolean featureCacheEnabled, boolean glueIndexEnabled) {
+    }
+
+    // Raw layered properties (default file, environment file, system properties)
+    final Map<String, String> raw;
+
+    // Browser Configuration
+    final String browser;
+    final boolean headless;
+    final boolean remote;
+    final String gridUrl;
+    final int viewportWidth;
+    final int viewportHeight;
+    final String throttleProfile;
+
+    // Environment Configuration
+    final String environment;
+    final String baseUrl;
+
+    // Timeout Configuration
+    final int implicitWait;
+    final int explicitWait;
+    final int pageLoadTimeout;
+
+    // Reporting Configuration
+    final boolean screenshotEnabled;
+    final boolean videoEnabled;
+    final String reportPath;
+
+    // Parallel Execution Configuration
+    final int threadCount;
+
+    // TestNG Configuration
+    final String testNGSuite;
+    final String cucumberTags;
+
+    // Database and API Configuration
+    final String databaseUrl;
+    final String databaseUsername;
+    final String databasePassword;
+    final String apiBaseUrl;
+    final String apiKey;
+
+    // Feature Configuration
+    final Reporting reporting;
+    final Metrics metrics;
+    final Latency latency;
+    final Jfr jfr;
+    final Artifacts artifacts;
+    final Navigation navigation;
+    final FlightRecorder flightRecorder;
+    final Performance performance;
+    final NetworkCapture networkCapture;
+    final Fixture fixture;
+    final Intercept intercept;
+    final ProxyCache proxyCache;
+    final LoadTest loadTest;
+    final Visual visual;
+    final Schedule schedule;
+    final Shard shard;
+    final ResultCache resultCache;
+    final Retry retry;
+    final Priority priority;
+    final Startup startup;
+
+    private ConfigSnapshot(Map<String, String> raw) {
+        this.raw = raw;
+
+        browser = string("test.browser", "chrome");
+        headless = bool("test.headless", "false");
+        remote = bool("test.remote", "false");
+        gridUrl = string("test.grid.url", "http://localhost:4444/wd/hub");
+        viewportWidth = integer("test.viewport.width", "0");
+        viewportHeight = integer("test.viewport.height", "0");
+        throttleProfile = string("test.throttle.profile", "none");
+
+        environment = string("test.environment", "local");
+        baseUrl = resolveBaseUrl(raw.get("test.base.url"), environment);
+
+        implicitWait = integer("test.timeout.implicit", "10");
+        explicitWait = integer("test.timeout.explicit", "30");
+        pageLoadTimeout = integer("test.timeout.pageload", "60");
+
+        screenshotEnabled = bool("test.screenshot.enabled", "true");
+        videoEnabled = bool("test.video.enabled", "false");
+        reportPath = string("test.report.path", "target/reports");
+
+        threadCount = integer("test.thread.count", "1");
+
+        testNGSuite = string("test.testng.suite", "testng.xml");
+        cucumberTags = string("test.cucumber.tags", "");
+
+        databaseUrl = string("test.database.url", "");
+        databaseUsername = string("test.database.username", "");
+        databasePassword = string("test.database.password", "");
+        apiBaseUrl = string("test.api.base.url", "");
+        apiKey = string("test.api.key", "");
+
+        reporting = new Reporting(
+            string("test.reporting.plugins", "pretty,"
+                + "html:target/reports/cucumber-html-report,"
+                + "json:target/reports/cucumber-json-report.json,"
+                + "junit:target/reports/cucumber-junit-report.xml,"
+                + "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm,"
+                + "timeline:target/reports/timeline,"
+                + "dev.marvinmarzon.runners.NdjsonResultSink:target/reports/results.ndjson,"
+                + "dev.marvinmarzon.runners.SuiteMetricsPlugin,"
+                + "dev.marvinmarzon.runners.StepLatencyPlugin,"
+                + "dev.marvinmarzon.runners.JfrStepEvents"),
+            bool("test.reporting.async.enabled", "false"),
+            string("test.reporting.sync.plugins",
+                "io.qameta.allure,timeline,dev.marvinmarzon.runners.JfrStepEvents"),
+            integer("test.reporting.queue.capacity", "8192"),
+            integer("test.reporting.batch.size", "256"),
+            bool("test.reporting.timing.enabled", "false"),
+            bool("test.log.buffer.enabled", "true"));
+
+        metrics = new Metrics(
+            bool("test.metrics.enabled", "false"),
+            string("test.metrics.host", "127.0.0.1"),
+            integer("test.metrics.port", "9464"));
+
+        latency = new Latency(
+            string("test.latency.profile.path", "target/reports/step-latency-profile.json"),
+            string("test.latency.baseline.path", "src/test/resources/step-latency-baseline.json"),
+            bool("test.latency.baseline.update", "false"),
+            bool("test.latency.gate.enabled", "false"),
+            doubleValue("test.latency.gate.threshold", "0.25"),
+            doubleValue("test.latency.gate.min.delta.ms", "50"),
+            integer("test.latency.gate.min.samples", "5"));
+
+        jfr = new Jfr(
+            bool("test.jfr.enabled", "false"),
+            string("test.jfr.settings", "profile"),
+            string("test.jfr.path", "target/jfr/suite.jfr"));
+
+        artifacts = new Artifacts(
+            string("test.artifact.backend", "files"),
+            string("test.artifact.archive.path", "target/artifacts"),
+            integer("test.artifact.segment.size.mb", "64"));
+
+        navigation = new Navigation(
+            bool("test.navigation.skip.redundant", "true"),
+            bool("test.background.snapshot.enabled", "false"));
+
+        flightRecorder = new FlightRecorder(
+            bool("test.flightrecorder.enabled", "false"),
+            bool("test.flightrecorder.frames.enabled", "true"),
+            integer("test.flightrecorder.window.seconds", "30"),
+            longValue("test.flightrecorder.budget.bytes", "8388608"),
+            integer("test.flightrecorder.capture.every.steps", "5"),
+            doubleValue("test.flightrecorder.frames.scale", "0.5"));
+
+        performance = new Performance(
+            bool("test.performance.observers.enabled", "true"),
+            doubleValue("test.performance.page.load.max", "5"),
+            doubleValue("test.performance.image.load.max", "0"),
+            doubleValue("test.performance.ttfb.max.ms", "0"),
+            doubleValue("test.performance.fcp.max.ms", "0"),
+            doubleValue("test.performance.lcp.max.ms", "0"),
+            doubleValue("test.performance.cls.max", "0"),
+            doubleValue("test.performance.tbt.max.ms", "0"));
+
+        networkCapture = new NetworkCapture(
+            bool("test.network.capture.enabled", "false"),
+            integer("test.network.capture.max.entries", "1000"));
+
+        fixture = new Fixture(
+            string("test.fixture.root", "src/test/resources/fixtures"),
+            integer("test.fixture.port", "0"));
+
+        intercept = new Intercept(
+            bool("test.intercept.enabled", "false"),
+            bool("test.intercept.measure", "true"),
+            prefixed("test.intercept.rule."));
+
+        proxyCache = new ProxyCache(
+            bool("test.proxy.cache.enabled", "false"),
+            integer("test.proxy.cache.port", "0"),
+            string("test.proxy.cache.dir", "target/proxy-cache"),
+            longValue("test.proxy.cache.memory.bytes", "67108864"),
+            longValue("test.proxy.cache.disk.bytes", "536870912"),
+            longValue("test.proxy.cache.override.ttl.seconds", "-1"));
+
+        loadTest = new LoadTest(
+            bool("test.load.enabled", "false"),
+            string("test.load.tags", "@load"),
+            integer("test.load.users", "5"),
+            integer("test.load.ramp.up.seconds", "10"),
+            integer("test.load.duration.seconds", "60"),
+            string("test.load.think.time.ms", "500-1500"),
+            bool("test.load.reuse.driver", "true"),
+            doubleValue("test.load.max.error.percent", "5"),
+            string("test.load.report.path", "target/reports/load-test-report.json"));
+
+        visual = new Visual(
+            string("test.visual.baseline.path", "src/test/resources/visual-baselines"),
+            doubleValue("test.visual.threshold", "0.001"),
+            integer("test.visual.tolerance", "16"),
+            bool("test.visual.antialiasing", "true"),
+            bool("test.visual.earlyexit", "true"));
+
+        schedule = new Schedule(
+            bool("test.schedule.enabled", "true"),
+            string("test.schedule.history.path", ".test-history/scenario-durations.json"),
+            doubleValue("test.schedule.default.estimate.seconds", "10"));
+
+        shard = new Shard(
+            integer("test.shard.index", "0"),
+            integer("test.shard.total", "1"),
+            string("test.shard.strategy", "hash"),
+            string("test.shard.history.path", ""));
+
+        resultCache = new ResultCache(
+            bool("test.resultcache.enabled", "false"),
+            bool("test.resultcache.force", "false"),
+            string("test.resultcache.path", "target/result-cache/scenario-results.json"));
+
+        retry = new Retry(
+            bool("test.retry.enabled", "false"),
+            integer("test.retry.max.attempts", "1"),
+            integer("test.retry.thread.count", "1"),
+            string("test.retry.stats.path", ".test-history/flakiness.json"),
+            bool("test.retry.quarantine.enabled", "true"),
+            doubleValue("test.retry.quarantine.threshold", "0.3"),
+            integer("test.retry.quarantine.min.runs", "5"));
+
+        priority = new Priority(
+            string("test.priority.classes", "@smoke"),
+            integer("test.priority.early.exit.failures", "0"));
+
+        startup = new Startup(
+            bool("test.feature.cache.enabled", "true"),
+            bool("test.glue.index.enabled", "false"));
+    }
+
+    /**
+     * Compile a snapshot from the given layered properties
+     */
+    static ConfigSnapshot compile(Map<String, String> properties) {
+        return new ConfigSnapshot(Collections.unmodifiableMap(new HashMap<>(properties)));
+    }
+
+    /**
+     * Compile a new snapshot with the given properties layered over this one
+     */
+    ConfigSnapshot with(Map<String, String> overrides) {
+        Map<String, String> merged = new HashMap<>(raw);
+        merged.putAll(overrides);
+        return new ConfigSnapshot(Collections.unmodifiableMap(merged));
+    }
+
+    String get(String key, String defaultValue) {
+        return raw.getOrDefault(key, defaultValue);
+    }
+
+    private static String resolveBaseUrl(String customUrl, String environment) {
+        if (customUrl != null && !customUrl.isEmpty()) {
+            return customUrl;
+        }
+
+        // Fallback to environment-specific URLs
+        switch (environment.toLowerCase()) {
+            case "dev":
+                return "https://dev.example.com";
+            case "staging":
+                return "https://staging.example.com";
+            case "prod":
+                return "https://prod.example.com";
+            default:
+                return "http://localhost:3000";
+        }
+    }
+
+    private String string(String key, String defaultValue) {
+        return raw.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Properties under the given prefix keyed by the rest of their name, sorted by key
+     */
+    Map<String, String> prefixed(String prefix) {
+        Map<String, String> matching = new TreeMap<>();
+        raw.forEach((key, value) -> {
+            if (key.startsWith(prefix) && key.length() > prefix.length()) {
+                matching.put(key.substring(prefix.length()), value);
+            }
+        });
+        return Collections.unmodifiableMap(matching);
+    }
+
+    private boolean bool(String key, String defaultValue) {
+        String value = string(key, defaultValue).trim();
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        reportInvalid(key, "boolean", defaultValue);
+        return Boolean.parseBoolean(defaultValue);
+    }
+
+    private int integer(String key, String defaultValue) {
+        return parse(key, "integer", defaultValue, Integer::parseInt);
+    }
+
+    private long longValue(String key, String defaultValue) {
+        return parse(key, "long", defaultValue, Long::parseLong);
+    }
+
+    private double doubleValue(String key, String defaultValue) {
+        return parse(key, "number", defaultValue, Double::parseDouble);
+    }
+
+    private <T> T parse(String key, String type, String defaultValue, Function<String, T> parser) {
+        try {
+            return parser.apply(string(key, defaultValue).trim());
+        } catch (NumberFormatException e) {
+            reportInvalid(key, type, defaultValue);
+            return parser.apply(defaultValue);
+        }
+    }
+
+    private void reportInvalid(String key, String type, String defaultValue) {
+        if (reportedInvalid.add(key + "=" + raw.get(key))) {
+            logger.warn("Invalid {} for {}: '{}', using the default {}", type, key, raw.get(key), defaultValue);
+        }
+    }
+}
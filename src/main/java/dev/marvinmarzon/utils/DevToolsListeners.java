@@ -0,0 +1,72 @@
+package dev.marvinmarzon.utils;
+
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Removable listeners for raw DevTools protocol events
+ * Selenium's DevTools can only clear every listener of a connection at once (and disables all domains
+ * while doing so), so each event method gets one Selenium listener per connection that fans out to the
+ * subscribed handlers. Unsubscribing removes only that handler; other components keep receiving events.
+ */
+final class DevToolsListeners {
+    private static final Logger logger = LoggerFactory.getLogger(DevToolsListeners.class);
+
+    private static final Map<DevTools, Map<String, Set<Consumer<Map<String, Object>>>>> handlers = new WeakHashMap<>();
+
+    private DevToolsListeners() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Subscribe a handler to a protocol event, e.g. "Network.requestWillBeSent"
+     *
+     * @return removes the handler again
+     */
+    static Runnable subscribe(DevTools devTools, String method, Consumer<Map<String, Object>> handler) {
+        Set<Consumer<Map<String, Object>>> subscribers;
+        boolean first = false;
+        synchronized (handlers) {
+            Map<String, Set<Consumer<Map<String, Object>>>> byMethod =
+                handlers.computeIfAbsent(devTools, key -> new ConcurrentHashMap<>());
+            subscribers = byMethod.get(method);
+            if (subscribers == null) {
+                subscribers = new CopyOnWriteArraySet<>();
+                byMethod.put(method, subscribers);
+                first = true;
+            }
+        }
+        subscribers.add(handler);
+        if (first) {
+            Set<Consumer<Map<String, Object>>> dispatch = subscribers;
+            devTools.addListener(event(method), params -> dispatch.forEach(subscriber -> deliver(subscriber, method, params)));
+        }
+        Set<Consumer<Map<String, Object>>> registered = subscribers;
+        return () -> registered.remove(handler);
+    }
+
+    /**
+     * Raw protocol event, so listeners do not depend on a versioned DevTools binding
+     */
+    static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static void deliver(Consumer<Map<String, Object>> subscriber, String method, Map<String, Object> params) {
+        try {
+            subscriber.accept(params);
+        } catch (RuntimeException e) {
+            logger.debug("DevTools listener for {} failed: {}", method, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.marvinmarzon.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Local static file server for deterministic page fixtures (test.fixture.root)
+ * URLs starting with "fixture:" resolve against it, e.g. {@code @baseurl:fixture:/index.html}; the
+ * server starts on first use. Responses are served uncompressed with a fixed length and no-store
+ * caching, so every run transfers the same bytes and throttled timings stay comparable. The same files
+ * under {@code /cached/} are served as cacheable static assets (max-age and Last-Modified), for
+ * scenarios that exercise HTTP caching such as the shared caching proxy.
+ */
+public final class FixtureServer {
+    private static final Logger logger = LoggerFactory.getLogger(FixtureServer.class);
+    private static final String SCHEME = "fixture:";
+    private static final String CACHED_PREFIX = "/cached/";
+    private static final String CACHED_CONTROL = "public, max-age=3600";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+        "html", "text/html; charset=utf-8",
+        "css", "text/css; charset=utf-8",
+        "js", "text/javascript; charset=utf-8",
+        "json", "application/json",
+        "svg", "image/svg+xml",
+        "png", "image/png",
+        "jpg", "image/jpeg",
+        "woff2", "font/woff2");
+
+    private static HttpServer server;
+    private static Path root;
+
+    private FixtureServer() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Map a "fixture:" URL to the local server; other URLs are returned unchanged
+     */
+    public static String resolve(String url) {
+        if (url == null || !url.startsWith(SCHEME)) {
+            return url;
+        }
+        String path = url.substring(SCHEME.length());
+        return baseUrl() + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    /**
+     * Base URL of the server, starting it if needed
+     */
+    public static synchronized String baseUrl() {
+        if (server == null) {
+            start();
+        }
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void start() {
+        root = Paths.get(TestConfigManager.getFixtureRoot()).toAbsolutePath().normalize();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", TestConfigManager.getFixturePort());
+        try {
+            server = HttpServer.create(address, 0);
+            server.createContext("/", FixtureServer::handle);
+            server.start();
+            logger.info("Fixture server serving {} at: http://127.0.0.1:{}", root, server.getAddress().getPort());
+        } catch (IOException e) {
+            server = null;
+            throw new UncheckedIOException("Could not start fixture server on " + address, e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String requestPath = exchange.getRequestURI().getPath();
+            boolean cacheable = requestPath.startsWith(CACHED_PREFIX);
+            if (cacheable) {
+                requestPath = requestPath.substring(CACHED_PREFIX.length() - 1);
+            }
+            Path file = root.resolve(requestPath.endsWith("/") ? requestPath.substring(1) + "index.html"
+                                                               : requestPath.substring(1)).normalize();
+            if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] body = Files.readAllBytes(file);
+            String name = file.getFileName().toString();
+            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+            exchange.getResponseHeaders().set("Content-Type",
+                                              CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"));
+            if (cacheable) {
+                exchange.getResponseHeaders().set("Cache-Control", CACHED_CONTROL);
+                exchange.getResponseHeaders().set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    Files.getLastModifiedTime(file).toInstant().atZone(ZoneOffset.UTC)));
+            } else {
+                exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            }
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
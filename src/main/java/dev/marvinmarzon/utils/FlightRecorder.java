@@ -0,0 +1,328 @@
+package dev.marvinmarzon.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Failure flight recorder for Cucumber-TestNG framework
+ * Keeps a per-thread ring buffer of recent frames, step boundaries, console messages,
+ * network events and the latest DOM snapshot within a fixed time window and memory budget.
+ * The buffer is only serialized when a scenario fails; otherwise it is dropped without any I/O.
+ * DOM snapshots and frames are the expensive part, so they are only taken on failed steps and
+ * every few steps, and frames are downscaled JPEGs.
+ */
+public class FlightRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorder.class);
+    private static final ThreadLocal<FlightRecorder> recorderThreadLocal = new ThreadLocal<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long EVENT_OVERHEAD_BYTES = 48;
+    private static final String RESOURCE_TIMING_SCRIPT =
+        "var all = window.performance.getEntriesByType('resource');" +
+        "var from = arguments[0] > all.length ? 0 : arguments[0];" +
+        "return {total: all.length, entries: all.slice(from).map(function(e) {" +
+        "  return {name: e.name, duration: Math.round(e.duration), size: e.transferSize || 0};" +
+        "})};";
+
+    public enum EventType { STEP, FRAME, CONSOLE, NETWORK, DOM }
+
+    private record Event(long timestamp, EventType type, String detail, byte[] payload) {
+        long sizeInBytes() {
+            return EVENT_OVERHEAD_BYTES + 2L * detail.length() + (payload == null ? 0 : payload.length);
+        }
+    }
+
+    private final String scenarioName;
+    private final long windowMillis;
+    private final long budgetBytes;
+    private final boolean framesEnabled;
+    private final int captureEverySteps;
+    private final double frameScale;
+    private final ArrayDeque<Event> events = new ArrayDeque<>();
+    private Event latestDom;
+    private long usedBytes;
+    private long evictedEvents;
+    private int stepCount;
+    private int resourceCursor;
+
+    private FlightRecorder(String scenarioName) {
+        this.scenarioName = scenarioName;
+        this.windowMillis = TestConfigManager.getFlightRecorderWindowSeconds() * 1000L;
+        this.budgetBytes = TestConfigManager.getFlightRecorderBudgetBytes();
+        this.framesEnabled = TestConfigManager.isFlightRecorderFramesEnabled();
+        this.captureEverySteps = TestConfigManager.getFlightRecorderCaptureEverySteps();
+        this.frameScale = TestConfigManager.getFlightRecorderFrameScale();
+    }
+
+    /**
+     * Start recording for the scenario running on the current thread
+     */
+    public static void start(String scenarioName) {
+        if (!TestConfigManager.isFlightRecorderEnabled()) {
+            return;
+        }
+        recorderThreadLocal.set(new FlightRecorder(scenarioName));
+        logger.debug("Flight recorder started for scenario: {} on thread: {}",
+                    scenarioName, Thread.currentThread().getId());
+    }
+
+    /**
+     * Check if a recording is active for current thread
+     */
+    public static boolean isRecording() {
+        return recorderThreadLocal.get() != null;
+    }
+
+    public static void recordStep(String label) {
+        record(EventType.STEP, label, null);
+    }
+
+    public static void recordFrame(byte[] jpeg) {
+        record(EventType.FRAME, "image/jpeg", jpeg);
+    }
+
+    public static void recordConsole(String level, String message) {
+        record(EventType.CONSOLE, level + " " + message, null);
+    }
+
+    public static void recordNetwork(String url, long durationMs, long transferSize) {
+        record(EventType.NETWORK, String.format("%s %dms %dB", url, durationMs, transferSize), null);
+    }
+
+    public static void recordDom(String html) {
+        FlightRecorder recorder = recorderThreadLocal.get();
+        if (recorder != null && html != null) {
+            recorder.replaceDom(new Event(System.currentTimeMillis(), EventType.DOM, "",
+                                          html.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Capture a step boundary together with the browser state of the current thread's driver
+     */
+    public static void captureBrowserState(String stepStatus) {
+        FlightRecorder recorder = recorderThreadLocal.get();
+        if (recorder == null) {
+            return;
+        }
+
+        recorder.stepCount++;
+        recordStep(String.format("Step %d [%s]", recorder.stepCount, stepStatus));
+
+        WebDriver driver = EnterpriseWebDriverManager.getDriver();
+        if (driver == null) {
+            return;
+        }
+
+        captureConsole(driver);
+        captureNetwork(recorder, driver);
+
+        boolean failed = "FAILED".equals(stepStatus);
+        boolean sampled = recorder.captureEverySteps > 0 && recorder.stepCount % recorder.captureEverySteps == 0;
+        if (!failed && !sampled) {
+            return;
+        }
+        try {
+            if (driver instanceof JavascriptExecutor) {
+                Object html = ((JavascriptExecutor) driver)
+                    .executeScript("return document.documentElement.outerHTML");
+                recordDom(html != null ? html.toString() : null);
+            }
+            if (recorder.framesEnabled && driver instanceof TakesScreenshot) {
+                JfrEvents.ScreenshotCapture event = new JfrEvents.ScreenshotCapture();
+                event.begin();
+                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                event.bytes = screenshot.length;
+                event.commit();
+                SuiteMetrics.SCREENSHOTS.increment();
+                SuiteMetrics.SCREENSHOT_BYTES.add(screenshot.length);
+                byte[] frame = downscale(screenshot, recorder.frameScale);
+                if (frame != null) {
+                    recordFrame(frame);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Could not capture DOM or frame for flight recorder: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stop recording and serialize the buffer as JSON for attachment
+     */
+    public static byte[] dumpAndStop() {
+        FlightRecorder recorder = recorderThreadLocal.get();
+        recorderThreadLocal.remove();
+        if (recorder == null) {
+            return null;
+        }
+
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(recorder.toReport());
+            logger.info("Flight recorder dumped {} events ({} bytes) for scenario: {}",
+                       recorder.events.size(), json.length, recorder.scenarioName);
+            return json;
+        } catch (Exception e) {
+            logger.error("Failed to serialize flight recorder for scenario: {}", recorder.scenarioName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stop recording and drop the buffer without serializing it
+     */
+    public static void discard() {
+        recorderThreadLocal.remove();
+    }
+
+    private static void record(EventType type, String detail, byte[] payload) {
+        FlightRecorder recorder = recorderThreadLocal.get();
+        if (recorder != null) {
+            recorder.append(new Event(System.currentTimeMillis(), type, detail, payload));
+        }
+    }
+
+    /**
+     * Scale a PNG screenshot and re-encode it as JPEG, which is far smaller for page content
+     */
+    private static byte[] downscale(byte[] png, double scale) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return null;
+        }
+        double factor = scale > 0 && scale < 1 ? scale : 1;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+        BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = frame.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(frame, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static void captureConsole(WebDriver driver) {
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                recordConsole(entry.getLevel().getName(), entry.getMessage());
+            }
+        } catch (Exception e) {
+            // Not every driver exposes browser logs (e.g. Firefox, Safari)
+            logger.trace("Browser console logs unavailable: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void captureNetwork(FlightRecorder recorder, WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(RESOURCE_TIMING_SCRIPT, recorder.resourceCursor);
+            if (result instanceof Map) {
+                Map<String, Object> timing = (Map<String, Object>) result;
+                recorder.resourceCursor = ((Number) timing.get("total")).intValue();
+                for (Map<String, Object> entry : (List<Map<String, Object>>) timing.get("entries")) {
+                    recordNetwork(String.valueOf(entry.get("name")),
+                                  ((Number) entry.get("duration")).longValue(),
+                                  ((Number) entry.get("size")).longValue());
+                }
+            }
+        } catch (Exception e) {
+            logger.trace("Resource timing unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void append(Event event) {
+        events.addLast(event);
+        usedBytes += event.sizeInBytes();
+        evict(event.timestamp());
+    }
+
+    private void replaceDom(Event dom) {
+        if (latestDom != null) {
+            usedBytes -= latestDom.sizeInBytes();
+        }
+        latestDom = dom;
+        usedBytes += dom.sizeInBytes();
+        evict(dom.timestamp());
+    }
+
+    /**
+     * Drop events older than the time window, then oldest events until the memory budget is met
+     */
+    private void evict(long now) {
+        while (!events.isEmpty() && now - events.peekFirst().timestamp() > windowMillis) {
+            removeOldest();
+        }
+        while (usedBytes > budgetBytes && !events.isEmpty()) {
+            removeOldest();
+        }
+        if (usedBytes > budgetBytes && latestDom != null) {
+            usedBytes -= latestDom.sizeInBytes();
+            latestDom = null;
+            evictedEvents++;
+        }
+    }
+
+    private void removeOldest() {
+        usedBytes -= events.removeFirst().sizeInBytes();
+        evictedEvents++;
+    }
+
+    private Map<String, Object> toReport() {
+        List<Map<String, Object>> serializedEvents = new ArrayList<>(events.size());
+        for (Event event : events) {
+            serializedEvents.add(toMap(event));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", scenarioName);
+        report.put("windowSeconds", windowMillis / 1000);
+        report.put("budgetBytes", budgetBytes);
+        report.put("usedBytes", usedBytes);
+        report.put("evictedEvents", evictedEvents);
+        report.put("events", serializedEvents);
+        if (latestDom != null) {
+            report.put("dom", new String(latestDom.payload(), StandardCharsets.UTF_8));
+        }
+        return report;
+    }
+
+    private static Map<String, Object> toMap(Event event) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("timestamp", event.timestamp());
+        map.put("type", event.type());
+        map.put("detail", event.detail());
+        if (event.payload() != null) {
+            map.put("payload", event.payload());
+        }
+        return map;
+    }
+}
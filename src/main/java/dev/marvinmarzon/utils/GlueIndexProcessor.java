@@ -0,0 +1,230 @@
+package dev.marvinmarzon.utils;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that writes an index of Cucumber glue (step definitions, hooks and
+ * parameter types) at test-compile time, so the runner can register glue without classpath
+ * scanning and reflection over every glue class.
+ *
+ * Index lines are tab separated:
+ * <pre>
+ * step           class  method  paramTypes  expression
+ * hook           kind   class   method      paramTypes  order  tagExpression
+ * parametertype  class  method  paramTypes  name        regexp useForSnippets preferForRegexMatch useRegexpMatchAsStrongTypeHint
+ * </pre>
+ * If any glue the index cannot describe is found, the index is left empty and Cucumber keeps scanning.
+ */
+@SupportedAnnotationTypes("*")
+public class GlueIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_RESOURCE = "META-INF/cucumber/glue-index.tsv";
+
+    private static final String STEP_ANNOTATION = "io.cucumber.java.StepDefinitionAnnotation";
+    private static final String REPEATED_STEP_ANNOTATION = "io.cucumber.java.StepDefinitionAnnotations";
+    private static final String PARAMETER_TYPE = "io.cucumber.java.ParameterType";
+    private static final Map<String, String> HOOKS = Map.of(
+        "io.cucumber.java.Before", "before",
+        "io.cucumber.java.After", "after",
+        "io.cucumber.java.BeforeStep", "beforestep",
+        "io.cucumber.java.AfterStep", "afterstep");
+    private static final Set<String> UNSUPPORTED = Set.of(
+        "io.cucumber.java.BeforeAll", "io.cucumber.java.AfterAll",
+        "io.cucumber.java.DataTableType", "io.cucumber.java.DocStringType",
+        "io.cucumber.java.DefaultParameterTransformer",
+        "io.cucumber.java.DefaultDataTableEntryTransformer",
+        "io.cucumber.java.DefaultDataTableCellTransformer");
+
+    private final Set<String> entries = new TreeSet<>();
+    private String unsupported;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+        for (Element element : roundEnv.getRootElements()) {
+            scanType(element);
+        }
+        return false;
+    }
+
+    private void scanType(Element type) {
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.METHOD) {
+                scanMethod((ExecutableElement) member);
+            } else if (member.getKind().isClass() || member.getKind().isInterface()) {
+                scanType(member);
+            }
+        }
+    }
+
+    private void scanMethod(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            String name = annotationType.getQualifiedName().toString();
+
+            if (hasMetaAnnotation(annotationType, STEP_ANNOTATION)) {
+                addStep(method, annotation);
+            } else if (hasMetaAnnotation(annotationType, REPEATED_STEP_ANNOTATION)) {
+                for (AnnotationValue repeated : arrayValue(annotation, "value")) {
+                    addStep(method, (AnnotationMirror) repeated.getValue());
+                }
+            } else if (HOOKS.containsKey(name)) {
+                addEntry(method, List.of("hook", HOOKS.get(name)),
+                         List.of(value(annotation, "order"), value(annotation, "value")));
+            } else if (PARAMETER_TYPE.equals(name)) {
+                addEntry(method, List.of("parametertype"),
+                         List.of(value(annotation, "name"), value(annotation, "value"),
+                                 value(annotation, "useForSnippets"), value(annotation, "preferForRegexMatch"),
+                                 value(annotation, "useRegexpMatchAsStrongTypeHint")));
+            } else if (UNSUPPORTED.contains(name)) {
+                markUnsupported(method, "@" + annotationType.getSimpleName());
+            }
+        }
+    }
+
+    private void addStep(ExecutableElement method, AnnotationMirror annotation) {
+        addEntry(method, List.of("step"), List.of(value(annotation, "value")));
+    }
+
+    private void addEntry(ExecutableElement method, List<String> prefix, List<String> suffix) {
+        String className = processingEnv.getElementUtils()
+            .getBinaryName((TypeElement) method.getEnclosingElement()).toString();
+        List<String> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String typeName = erasedName(parameter.asType());
+            if (typeName == null) {
+                markUnsupported(method, "parameter type " + parameter.asType());
+                return;
+            }
+            parameterTypes.add(typeName);
+        }
+
+        List<String> fields = new ArrayList<>(prefix);
+        fields.add(className);
+        fields.add(method.getSimpleName().toString());
+        fields.add(String.join(",", parameterTypes));
+        fields.addAll(suffix);
+        entries.add(String.join("\t", fields.stream().map(GlueIndexProcessor::escape).toList()));
+    }
+
+    private String erasedName(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind().isPrimitive()) {
+            return erased.toString();
+        }
+        if (erased.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+            return processingEnv.getElementUtils().getBinaryName(element).toString();
+        }
+        return null;
+    }
+
+    private void markUnsupported(ExecutableElement method, String what) {
+        if (unsupported == null) {
+            unsupported = what + " on " + method.getEnclosingElement() + "." + method.getSimpleName();
+        }
+    }
+
+    /**
+     * Always (re)written so a stale index from an earlier build never survives;
+     * an index without entries makes the runner fall back to scanning.
+     */
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by " + GlueIndexProcessor.class.getSimpleName() + "\n");
+                if (unsupported != null) {
+                    writer.write("# Not indexed, unsupported glue: " + unsupported + "\n");
+                } else {
+                    for (String entry : entries) {
+                        writer.write(entry);
+                        writer.write('\n');
+                    }
+                }
+            }
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, unsupported != null
+                ? "Glue index left empty, unsupported glue: " + unsupported
+                : "Glue index written with " + entries.size() + " entries");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "Could not write glue index: " + e.getMessage());
+        }
+    }
+
+    private boolean hasMetaAnnotation(TypeElement annotationType, String metaAnnotation) {
+        return annotationType.getAnnotationMirrors().stream()
+            .anyMatch(meta -> ((TypeElement) meta.getAnnotationType().asElement())
+                .getQualifiedName().contentEquals(metaAnnotation));
+    }
+
+    private String value(AnnotationMirror annotation, String name) {
+        return String.valueOf(annotationValue(annotation, name).getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> arrayValue(AnnotationMirror annotation, String name) {
+        return (List<? extends AnnotationValue>) annotationValue(annotation, name).getValue();
+    }
+
+    private AnnotationValue annotationValue(AnnotationMirror annotation, String name) {
+        return processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet().stream()
+            .filter(entry -> entry.getKey().getSimpleName().contentEquals(name))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No attribute " + name + " on " + annotation));
+    }
+
+    private static String escape(String field) {
+        return field.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * Reverse of the field escaping used when writing the index
+     */
+    public static String unescape(String field) {
+        StringBuilder result = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char next = field.charAt(++i);
+                result.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
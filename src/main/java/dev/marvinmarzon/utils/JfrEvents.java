@@ -0,0 +1,111 @@
+package dev.marvinmarzon.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for test activity, shown under "Selenium Suite" in JDK Mission Control
+ * Each event is timed between begin() and commit() on the thread doing the work, so it lines up with
+ * the GC, thread parking and socket read events of the same recording. Unless a recording is running
+ * the events are disabled and committing them is close to free.
+ */
+public final class JfrEvents {
+    private static final String CATEGORY = "Selenium Suite";
+
+    private JfrEvents() {
+        // Private constructor to prevent instantiation
+    }
+
+    @Name("dev.marvinmarzon.DriverCreate")
+    @Label("WebDriver Session Creation")
+    @Category({CATEGORY, "Driver"})
+    @StackTrace(false)
+    public static final class DriverCreate extends Event {
+        @Label("Browser")
+        public String browser;
+
+        @Label("Remote")
+        public boolean remote;
+
+        @Label("Headless")
+        public boolean headless;
+
+        @Label("Throttle Profile")
+        public String throttle;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("dev.marvinmarzon.DriverQuit")
+    @Label("WebDriver Session Quit")
+    @Category({CATEGORY, "Driver"})
+    @StackTrace(false)
+    public static final class DriverQuit extends Event {
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    @Name("dev.marvinmarzon.Step")
+    @Label("Cucumber Step")
+    @Category({CATEGORY, "Cucumber"})
+    @StackTrace(false)
+    public static final class Step extends Event {
+        @Label("Scenario")
+        public String scenario;
+
+        @Label("Step")
+        public String step;
+
+        @Label("Pattern")
+        @Description("Step definition pattern the step matched")
+        public String pattern;
+
+        @Label("Status")
+        public String status;
+    }
+
+    @Name("dev.marvinmarzon.Wait")
+    @Label("Explicit Wait")
+    @Category({CATEGORY, "Driver"})
+    @StackTrace(false)
+    public static final class Wait extends Event {
+        @Label("Condition")
+        public String condition;
+
+        @Label("Timeout (ms)")
+        public long timeoutMillis;
+
+        @Label("Timed Out")
+        public boolean timedOut;
+    }
+
+    @Name("dev.marvinmarzon.ScreenshotCapture")
+    @Label("Screenshot Capture")
+    @Category({CATEGORY, "Screenshot"})
+    @StackTrace(false)
+    public static final class ScreenshotCapture extends Event {
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("dev.marvinmarzon.ScreenshotWrite")
+    @Label("Screenshot Write")
+    @Category({CATEGORY, "Screenshot"})
+    @StackTrace(false)
+    public static final class ScreenshotWrite extends Event {
+        @Label("Target")
+        @Description("File path or archive reference")
+        public String target;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+}
@@ -0,0 +1,72 @@
+package dev.marvinmarzon.utils;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Suite-wide Java Flight Recorder recording, written to one file for JDK Mission Control
+ * Uses one of the JDK's settings ("default" or "profile") with the {@link JfrEvents} enabled.
+ * The recording is also written if the JVM exits before the suite teardown runs.
+ */
+public final class JfrRecording {
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecording.class);
+
+    private static Recording recording;
+
+    private JfrRecording() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Start recording when test.jfr.enabled=true; repeated calls are ignored
+     */
+    public static synchronized void start() {
+        if (!TestConfigManager.isJfrEnabled() || recording != null) {
+            return;
+        }
+        Path file = Paths.get(TestConfigManager.getJfrPath()).toAbsolutePath();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Recording started = new Recording(Configuration.getConfiguration(TestConfigManager.getJfrSettings()));
+            started.setName("selenium-suite");
+            started.setToDisk(true);
+            started.setDumpOnExit(true);
+            started.setDestination(file);
+            started.start();
+            recording = started;
+            logger.info("JFR recording started with '{}' settings, writing to: {}", TestConfigManager.getJfrSettings(), file);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            // Profiling must never fail the suite
+            logger.warn("Could not start JFR recording", e);
+        }
+    }
+
+    /**
+     * Stop the recording, which writes it to its destination
+     */
+    public static synchronized void stop() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            logger.info("JFR recording written to: {} (open with JDK Mission Control or 'jfr summary')",
+                       recording.getDestination());
+        } catch (IllegalStateException e) {
+            logger.warn("Could not stop JFR recording", e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
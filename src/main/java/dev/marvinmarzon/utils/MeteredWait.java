@@ -0,0 +1,55 @@
+package dev.marvinmarzon.utils;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait that records the time spent waiting, and timeouts, in {@link SuiteMetrics}
+ * and as a {@link JfrEvents.Wait} event naming the condition
+ */
+public class MeteredWait extends WebDriverWait {
+
+    private final Duration timeout;
+
+    public MeteredWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        long start = System.nanoTime();
+        JfrEvents.Wait event = new JfrEvents.Wait();
+        event.begin();
+        try {
+            return super.until(isTrue);
+        } catch (TimeoutException e) {
+            SuiteMetrics.WAIT_TIMEOUTS.increment();
+            event.timedOut = true;
+            throw e;
+        } finally {
+            SuiteMetrics.WAIT_DURATION.observeNanos(System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.condition = conditionName(isTrue);
+                event.timeoutMillis = timeout.toMillis();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * ExpectedConditions describe themselves; lambdas are named after the class that declares them
+     */
+    static String conditionName(Object condition) {
+        String className = condition.getClass().getName();
+        int lambda = className.indexOf("$$Lambda");
+        if (lambda > 0) {
+            return "lambda in " + className.substring(className.lastIndexOf('.') + 1, lambda);
+        }
+        return String.valueOf(condition);
+    }
+}
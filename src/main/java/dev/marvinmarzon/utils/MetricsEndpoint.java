@@ -0,0 +1,90 @@
+package dev.marvinmarzon.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+/**
+ * Local HTTP endpoint serving {@link SuiteMetrics} at /metrics for Prometheus or curl
+ * Scrapes are handled one at a time on the server's dispatcher thread, which owns a reused text
+ * and byte buffer, so a scrape allocates next to nothing and never blocks the scenario threads.
+ */
+public final class MetricsEndpoint {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsEndpoint.class);
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static HttpServer server;
+
+    // Only touched by the dispatcher thread
+    private static final StringBuilder text = new StringBuilder(8192);
+    private static byte[] bytes = new byte[8192];
+
+    private MetricsEndpoint() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Start the endpoint when test.metrics.enabled=true; repeated calls are ignored
+     */
+    public static synchronized void start() {
+        if (!TestConfigManager.isMetricsEnabled() || server != null) {
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(TestConfigManager.getMetricsHost(),
+                                                          TestConfigManager.getMetricsPort());
+        try {
+            server = HttpServer.create(address, 0);
+            server.createContext("/metrics", MetricsEndpoint::handle);
+            server.start();
+            logger.info("Suite metrics available at: http://{}:{}/metrics", address.getHostString(),
+                       server.getAddress().getPort());
+        } catch (IOException e) {
+            // Telemetry must never fail the suite
+            logger.warn("Could not start metrics endpoint on {}", address, e);
+            server = null;
+        }
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            text.setLength(0);
+            SuiteMetrics.writeTo(text);
+            int length = encode();
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bytes, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Metric names, labels and numbers are ASCII, so characters map to bytes one to one
+     */
+    private static int encode() {
+        int length = text.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return length;
+    }
+}
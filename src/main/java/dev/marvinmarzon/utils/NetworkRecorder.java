@@ -0,0 +1,471 @@
+package dev.marvinmarzon.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-scenario network capture through the Chrome DevTools Protocol Network domain
+ * Records every request the browser makes with its timings, transfer size, cache status and failure,
+ * and exports them as a HAR 1.2 log. Response bodies are never fetched, and at most
+ * test.network.capture.max.entries requests are kept per scenario; later ones are only counted.
+ * DevTools events arrive on the connection thread, so the recorder is synchronized.
+ */
+public class NetworkRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkRecorder.class);
+    private static final ThreadLocal<NetworkRecorder> recorderThreadLocal = new ThreadLocal<>();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String BLOCKED_BY_CLIENT = "net::ERR_BLOCKED_BY_CLIENT";
+    private static final int MAX_HEADERS = 64;
+    private static final int MAX_HEADER_VALUE_LENGTH = 512;
+
+    /**
+     * One captured request; sizes are bytes on the wire, cache is "memory", "disk", "service-worker" or null
+     */
+    public record Request(String url, String method, String resourceType, int status, String mimeType,
+                          long transferBytes, double durationMs, String cache, String failure) {
+        /**
+         * Requests blocked on purpose by {@link RequestInterceptor} rules do not count as failures
+         */
+        public boolean failed() {
+            return failure != null && !BLOCKED_BY_CLIENT.equals(failure) || status >= 400;
+        }
+    }
+
+    /**
+     * Mutable state of one request while its DevTools events arrive
+     */
+    private static final class Exchange {
+        String url;
+        String method;
+        String resourceType;
+        double wallTime;
+        double startTimestamp;
+        double endTimestamp = -1;
+        Map<String, Object> requestHeaders = Map.of();
+        Map<String, Object> response;
+        String redirectUrl = "";
+        boolean servedFromMemoryCache;
+        long encodedDataLength;
+        String failure;
+    }
+
+    private final DevTools devTools;
+    private final int maxEntries;
+    private final String throttleProfile;
+    private final Map<String, Exchange> inFlight = new LinkedHashMap<>();
+    private final List<Exchange> completed = new ArrayList<>();
+    private final List<Runnable> listeners = new ArrayList<>();
+    private long droppedRequests;
+    private boolean stopped;
+
+    private NetworkRecorder(DevTools devTools) {
+        this.devTools = devTools;
+        this.maxEntries = TestConfigManager.getNetworkCaptureMaxEntries();
+        this.throttleProfile = EnterpriseWebDriverManager.getThrottleProfile();
+    }
+
+    /**
+     * Start capturing the network traffic of the given driver for the scenario on the current thread
+     */
+    public static void start(WebDriver driver) {
+        if (!TestConfigManager.isNetworkCaptureEnabled() || driver == null) {
+            return;
+        }
+        Optional<DevTools> devTools = devTools(driver);
+        if (devTools.isEmpty()) {
+            logger.info("Network capture needs a Chromium browser with DevTools; not recording");
+            return;
+        }
+        try {
+            NetworkRecorder recorder = new NetworkRecorder(devTools.get());
+            recorder.attach();
+            recorderThreadLocal.set(recorder);
+            logger.debug("Network capture started on thread: {}", Thread.currentThread().getId());
+        } catch (RuntimeException e) {
+            logger.warn("Could not start network capture: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check if network capture is active for current thread
+     */
+    public static boolean isRecording() {
+        return recorderThreadLocal.get() != null;
+    }
+
+    /**
+     * Requests captured so far on the current thread, in the order they started
+     */
+    public static List<Request> requests() {
+        NetworkRecorder recorder = recorderThreadLocal.get();
+        return recorder == null ? List.of() : recorder.snapshot();
+    }
+
+    /**
+     * Stop capturing and serialize the captured requests as a HAR log
+     */
+    public static byte[] exportHarAndStop() {
+        NetworkRecorder recorder = recorderThreadLocal.get();
+        recorderThreadLocal.remove();
+        if (recorder == null) {
+            return null;
+        }
+
+        recorder.detach();
+        try {
+            byte[] har = MAPPER.writeValueAsBytes(recorder.toHar());
+            logger.info("Network capture exported {} requests ({} bytes, {} dropped)",
+                       recorder.completed.size() + recorder.inFlight.size(), har.length, recorder.droppedRequests);
+            return har;
+        } catch (Exception e) {
+            logger.error("Failed to serialize network capture", e);
+            return null;
+        }
+    }
+
+    /**
+     * Stop capturing and drop the captured requests
+     */
+    public static void discard() {
+        NetworkRecorder recorder = recorderThreadLocal.get();
+        recorderThreadLocal.remove();
+        if (recorder != null) {
+            recorder.detach();
+        }
+    }
+
+    /**
+     * DevTools connection of a Chromium driver; remote sessions only expose it once augmented
+     */
+    static Optional<DevTools> devTools(WebDriver driver) {
+        try {
+            WebDriver cdpDriver = driver.getClass() == RemoteWebDriver.class ? new Augmenter().augment(driver) : driver;
+            if (cdpDriver instanceof HasDevTools hasDevTools) {
+                Optional<DevTools> devTools = hasDevTools.maybeGetDevTools();
+                devTools.ifPresent(DevTools::createSessionIfThereIsNotOne);
+                return devTools;
+            }
+        } catch (RuntimeException e) {
+            logger.debug("DevTools unavailable: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private void attach() {
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Network.requestWillBeSent", this::onRequestWillBeSent));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Network.requestServedFromCache", this::onRequestServedFromCache));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Network.responseReceived", this::onResponseReceived));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Network.loadingFinished", this::onLoadingFinished));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Network.loadingFailed", this::onLoadingFailed));
+    }
+
+    /**
+     * Remove this recorder's listeners; the Network domain stays enabled while it carries the
+     * driver's network throttling, which Network.disable would switch off
+     */
+    private void detach() {
+        synchronized (this) {
+            stopped = true;
+        }
+        listeners.forEach(Runnable::run);
+        listeners.clear();
+        if (EnterpriseWebDriverManager.isNetworkThrottled()) {
+            return;
+        }
+        try {
+            devTools.send(new Command<>("Network.disable", Map.of()));
+        } catch (RuntimeException e) {
+            logger.trace("Could not disable network domain: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onRequestWillBeSent(Map<String, Object> params) {
+        if (stopped) {
+            return;
+        }
+        String requestId = (String) params.get("requestId");
+        double timestamp = number(params.get("timestamp"));
+
+        // A redirect reuses the request id; the previous hop completes with the redirect response
+        Exchange previous = inFlight.remove(requestId);
+        if (previous != null) {
+            Map<String, Object> redirectResponse = (Map<String, Object>) params.get("redirectResponse");
+            if (redirectResponse != null) {
+                previous.response = harFields(redirectResponse);
+                previous.encodedDataLength = (long) number(redirectResponse.get("encodedDataLength"));
+            }
+            previous.redirectUrl = (String) ((Map<String, Object>) params.get("request")).get("url");
+            previous.endTimestamp = timestamp;
+            completed.add(previous);
+        }
+
+        if (inFlight.size() + completed.size() >= maxEntries) {
+            droppedRequests++;
+            return;
+        }
+
+        Map<String, Object> request = (Map<String, Object>) params.get("request");
+        Exchange exchange = new Exchange();
+        exchange.url = (String) request.get("url");
+        exchange.method = (String) request.get("method");
+        exchange.requestHeaders = boundedHeaders((Map<String, Object>) request.get("headers"));
+        exchange.resourceType = (String) params.get("type");
+        exchange.wallTime = number(params.get("wallTime"));
+        exchange.startTimestamp = timestamp;
+        inFlight.put(requestId, exchange);
+    }
+
+    private synchronized void onRequestServedFromCache(Map<String, Object> params) {
+        Exchange exchange = stopped ? null : inFlight.get((String) params.get("requestId"));
+        if (exchange != null) {
+            exchange.servedFromMemoryCache = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void onResponseReceived(Map<String, Object> params) {
+        Exchange exchange = stopped ? null : inFlight.get((String) params.get("requestId"));
+        if (exchange != null) {
+            exchange.response = harFields((Map<String, Object>) params.get("response"));
+        }
+    }
+
+    private synchronized void onLoadingFinished(Map<String, Object> params) {
+        Exchange exchange = stopped ? null : inFlight.remove((String) params.get("requestId"));
+        if (exchange != null) {
+            exchange.endTimestamp = number(params.get("timestamp"));
+            exchange.encodedDataLength = (long) number(params.get("encodedDataLength"));
+            completed.add(exchange);
+        }
+    }
+
+    private synchronized void onLoadingFailed(Map<String, Object> params) {
+        Exchange exchange = stopped ? null : inFlight.remove((String) params.get("requestId"));
+        if (exchange != null) {
+            exchange.endTimestamp = number(params.get("timestamp"));
+            Object blockedReason = params.get("blockedReason");
+            exchange.failure = blockedReason != null ? "blocked:" + blockedReason
+                : Boolean.TRUE.equals(params.get("canceled")) ? "canceled" : (String) params.get("errorText");
+            completed.add(exchange);
+        }
+    }
+
+    private synchronized List<Request> snapshot() {
+        List<Request> requests = new ArrayList<>(completed.size() + inFlight.size());
+        for (Exchange exchange : ordered()) {
+            Map<String, Object> response = exchange.response != null ? exchange.response : Map.of();
+            requests.add(new Request(exchange.url, exchange.method, exchange.resourceType,
+                                     (int) number(response.get("status")), (String) response.get("mimeType"),
+                                     exchange.encodedDataLength, round(totalMillis(exchange)), cache(exchange),
+                                     exchange.failure));
+        }
+        return requests;
+    }
+
+    private List<Exchange> ordered() {
+        List<Exchange> all = new ArrayList<>(completed);
+        all.addAll(inFlight.values());
+        all.sort((a, b) -> Double.compare(a.startTimestamp, b.startTimestamp));
+        return all;
+    }
+
+    private synchronized Map<String, Object> toHar() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Exchange exchange : ordered()) {
+            entries.add(toHarEntry(exchange));
+        }
+
+        Map<String, Object> creator = new LinkedHashMap<>();
+        creator.put("name", "selenium-cucumber-testng-tests");
+        creator.put("version", "1.0");
+
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("version", "1.2");
+        log.put("creator", creator);
+        log.put("pages", List.of());
+        log.put("entries", entries);
+        log.put("_droppedRequests", droppedRequests);
+        log.put("_throttleProfile", throttleProfile);
+        return Map.of("log", log);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> toHarEntry(Exchange exchange) {
+        Map<String, Object> response = exchange.response != null ? exchange.response : Map.of();
+        Map<String, Object> timings = harTimings(exchange, (Map<String, Object>) response.get("timing"));
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("method", exchange.method);
+        request.put("url", exchange.url);
+        request.put("httpVersion", response.getOrDefault("protocol", ""));
+        request.put("cookies", List.of());
+        request.put("headers", harHeaders(exchange.requestHeaders));
+        request.put("queryString", List.of());
+        request.put("headersSize", -1);
+        request.put("bodySize", -1);
+
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("size", -1);
+        content.put("mimeType", response.getOrDefault("mimeType", ""));
+
+        Map<String, Object> harResponse = new LinkedHashMap<>();
+        harResponse.put("status", (int) number(response.get("status")));
+        harResponse.put("statusText", response.getOrDefault("statusText", ""));
+        harResponse.put("httpVersion", response.getOrDefault("protocol", ""));
+        harResponse.put("cookies", List.of());
+        harResponse.put("headers", harHeaders((Map<String, Object>) response.getOrDefault("headers", Map.of())));
+        harResponse.put("content", content);
+        harResponse.put("redirectURL", exchange.redirectUrl);
+        harResponse.put("headersSize", -1);
+        harResponse.put("bodySize", -1);
+        harResponse.put("_transferSize", exchange.encodedDataLength);
+        if (exchange.failure != null) {
+            harResponse.put("_error", exchange.failure);
+        }
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("startedDateTime", Instant.ofEpochMilli(Math.round(exchange.wallTime * 1000)).toString());
+        entry.put("time", timings.remove("_total"));
+        entry.put("request", request);
+        entry.put("response", harResponse);
+        entry.put("cache", Map.of());
+        entry.put("timings", timings);
+        Object remoteAddress = response.get("remoteIPAddress");
+        if (remoteAddress != null) {
+            entry.put("serverIPAddress", remoteAddress);
+        }
+        entry.put("_resourceType", exchange.resourceType);
+        String cache = cache(exchange);
+        if (cache != null) {
+            entry.put("_fromCache", cache);
+        }
+        return entry;
+    }
+
+    /**
+     * HAR phases from the DevTools ResourceTiming offsets (milliseconds relative to requestTime)
+     * Phases that did not happen are -1; ssl is part of connect, as the HAR spec defines it.
+     */
+    private static Map<String, Object> harTimings(Exchange exchange, Map<String, Object> timing) {
+        double total = totalMillis(exchange);
+        Map<String, Object> timings = new LinkedHashMap<>();
+        if (timing == null) {
+            // Cached, failed or unfinished requests have no phase breakdown
+            timings.put("blocked", -1);
+            timings.put("dns", -1);
+            timings.put("connect", -1);
+            timings.put("send", 0);
+            timings.put("wait", round(total));
+            timings.put("receive", 0);
+            timings.put("ssl", -1);
+            timings.put("_total", round(total));
+            return timings;
+        }
+
+        double dnsStart = number(timing.get("dnsStart"));
+        double connectStart = number(timing.get("connectStart"));
+        double sslStart = number(timing.get("sslStart"));
+        double sendStart = number(timing.get("sendStart"));
+        double sendEnd = number(timing.get("sendEnd"));
+        double headersEnd = number(timing.get("receiveHeadersEnd"));
+        double queued = (number(timing.get("requestTime")) - exchange.startTimestamp) * 1000;
+
+        double firstPhase = dnsStart >= 0 ? dnsStart : connectStart >= 0 ? connectStart : sendStart;
+        double blocked = Math.max(0, queued) + Math.max(0, firstPhase);
+        double dns = dnsStart >= 0 ? number(timing.get("dnsEnd")) - dnsStart : -1;
+        double connect = connectStart >= 0 ? number(timing.get("connectEnd")) - connectStart : -1;
+        double ssl = sslStart >= 0 ? number(timing.get("sslEnd")) - sslStart : -1;
+        double send = Math.max(0, sendEnd - sendStart);
+        double wait = Math.max(0, headersEnd - sendEnd);
+        double receive = Math.max(0, total - Math.max(0, queued) - headersEnd);
+
+        timings.put("blocked", round(blocked));
+        timings.put("dns", round(dns));
+        timings.put("connect", round(connect));
+        timings.put("send", round(send));
+        timings.put("wait", round(wait));
+        timings.put("receive", round(receive));
+        timings.put("ssl", round(ssl));
+        timings.put("_total", round(blocked + Math.max(0, dns) + Math.max(0, connect) + send + wait + receive));
+        return timings;
+    }
+
+    private static double totalMillis(Exchange exchange) {
+        return exchange.endTimestamp < 0 ? 0 : (exchange.endTimestamp - exchange.startTimestamp) * 1000;
+    }
+
+    private static String cache(Exchange exchange) {
+        Map<String, Object> response = exchange.response != null ? exchange.response : Map.of();
+        if (exchange.servedFromMemoryCache) {
+            return "memory";
+        }
+        if (Boolean.TRUE.equals(response.get("fromDiskCache")) || Boolean.TRUE.equals(response.get("fromPrefetchCache"))) {
+            return "disk";
+        }
+        return Boolean.TRUE.equals(response.get("fromServiceWorker")) ? "service-worker" : null;
+    }
+
+    /**
+     * Response fields the HAR and the assertions use; certificate details and raw header text are dropped
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> harFields(Map<String, Object> response) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String key : List.of("status", "statusText", "mimeType", "protocol", "remoteIPAddress", "timing",
+                                  "fromDiskCache", "fromPrefetchCache", "fromServiceWorker")) {
+            if (response.get(key) != null) {
+                fields.put(key, response.get(key));
+            }
+        }
+        fields.put("headers", boundedHeaders((Map<String, Object>) response.get("headers")));
+        return fields;
+    }
+
+    private static Map<String, Object> boundedHeaders(Map<String, Object> headers) {
+        if (headers == null) {
+            return Map.of();
+        }
+        Map<String, Object> bounded = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (bounded.size() == MAX_HEADERS) {
+                break;
+            }
+            String value = String.valueOf(header.getValue());
+            bounded.put(header.getKey(), value.length() > MAX_HEADER_VALUE_LENGTH
+                ? value.substring(0, MAX_HEADER_VALUE_LENGTH) : value);
+        }
+        return bounded;
+    }
+
+    private static List<Map<String, Object>> harHeaders(Map<String, Object> headers) {
+        List<Map<String, Object>> harHeaders = new ArrayList<>(headers.size());
+        headers.forEach((name, value) -> harHeaders.add(Map.of("name", name, "value", value)));
+        return harHeaders;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+}
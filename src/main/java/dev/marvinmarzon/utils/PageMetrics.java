@@ -0,0 +1,248 @@
+package dev.marvinmarzon.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page performance metrics from the browser's Performance Timeline
+ * On Chromium browsers buffered PerformanceObservers are installed into every new document before
+ * any page script runs (CDP Page.addScriptToEvaluateOnNewDocument), so LCP, layout shifts and long
+ * tasks are observed from the start of each navigation. Other browsers get the same observers when
+ * metrics are first collected; the buffered flag still replays the entries the browser kept.
+ * Navigation Timing Level 2, paint and resource timing are read from the timeline directly.
+ */
+public final class PageMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(PageMetrics.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ThreadLocal<Snapshot> lastSnapshot = new ThreadLocal<>();
+
+    // Idempotent; keeps observer state in window.__pageMetrics until the next navigation
+    private static final String OBSERVER_SCRIPT = """
+        (function () {
+          if (window.__pageMetrics) { return; }
+          var state = {lcp: null, lcpElement: null, cls: 0, session: 0, sessionFirst: 0, sessionLast: 0, longTasks: []};
+          var observers = [];
+          function observe(type, handle) {
+            try {
+              var observer = new PerformanceObserver(function (list) { list.getEntries().forEach(handle); });
+              observer.observe({type: type, buffered: true});
+              observers.push({observer: observer, handle: handle});
+            } catch (e) { /* entry type not supported by this browser */ }
+          }
+          function describe(element) {
+            return element.tagName.toLowerCase() + (element.id ? '#' + element.id : '')
+              + (element.className && typeof element.className === 'string' ? '.' + element.className.trim().split(/\\s+/).join('.') : '');
+          }
+          observe('largest-contentful-paint', function (e) {
+            state.lcp = e.startTime;
+            state.lcpElement = e.element ? describe(e.element) : (e.url || null);
+          });
+          observe('layout-shift', function (e) {
+            if (e.hadRecentInput) { return; }
+            // Session windows: shifts less than 1 s apart, at most 5 s long; CLS is the largest window
+            if (state.session && e.startTime - state.sessionLast < 1000 && e.startTime - state.sessionFirst < 5000) {
+              state.session += e.value;
+            } else {
+              state.session = e.value;
+              state.sessionFirst = e.startTime;
+            }
+            state.sessionLast = e.startTime;
+            state.cls = Math.max(state.cls, state.session);
+          });
+          observe('longtask', function (e) {
+            if (state.longTasks.length < 1000) { state.longTasks.push({start: e.startTime, duration: e.duration}); }
+          });
+          window.__pageMetrics = {
+            fromStart: document.readyState === 'loading',
+            collect: function () {
+              observers.forEach(function (o) { o.observer.takeRecords().forEach(o.handle); });
+              var round = function (value) { return Math.round(value * 10) / 10; };
+              var nav = performance.getEntriesByType('navigation')[0];
+              var paints = {};
+              performance.getEntriesByType('paint').forEach(function (p) { paints[p.name] = round(p.startTime); });
+              var fcp = paints['first-contentful-paint'];
+              var blocking = 0, longest = 0;
+              state.longTasks.forEach(function (t) {
+                if (fcp === undefined || t.start >= fcp) { blocking += Math.max(0, t.duration - 50); }
+                longest = Math.max(longest, t.duration);
+              });
+              var resources = performance.getEntriesByType('resource');
+              var byType = {}, bytes = 0, slowestImage = 0;
+              resources.forEach(function (r) {
+                byType[r.initiatorType] = (byType[r.initiatorType] || 0) + 1;
+                bytes += r.transferSize || 0;
+                if (r.initiatorType === 'img') { slowestImage = Math.max(slowestImage, r.duration); }
+              });
+              var slowest = resources.slice().sort(function (a, b) { return b.duration - a.duration; }).slice(0, 5)
+                .map(function (r) {
+                  return {name: r.name, initiatorType: r.initiatorType, durationMs: round(r.duration), transferBytes: r.transferSize || 0};
+                });
+              return JSON.stringify({
+                url: location.href,
+                observedFromStart: window.__pageMetrics.fromStart,
+                navigation: nav ? {
+                  type: nav.type, ttfbMs: round(nav.responseStart), domContentLoadedMs: round(nav.domContentLoadedEventEnd),
+                  loadMs: round(nav.loadEventEnd), durationMs: round(nav.duration), transferBytes: nav.transferSize || 0
+                } : null,
+                firstPaintMs: paints['first-paint'] === undefined ? null : paints['first-paint'],
+                firstContentfulPaintMs: fcp === undefined ? null : fcp,
+                largestContentfulPaintMs: state.lcp === null ? null : round(state.lcp),
+                lcpElement: state.lcpElement,
+                cumulativeLayoutShift: Math.round(state.cls * 10000) / 10000,
+                longTasks: {count: state.longTasks.length, totalBlockingTimeMs: round(blocking), longestMs: round(longest)},
+                resources: {count: resources.length, transferBytes: bytes, byType: byType, slowestImageMs: round(slowestImage), slowest: slowest}
+              });
+            }
+          };
+        })();
+        """;
+
+    private static final String COLLECT_SCRIPT = OBSERVER_SCRIPT + "return window.__pageMetrics.collect();";
+
+    /**
+     * Metrics of the current document; times are milliseconds from the start of its navigation
+     * Paint and LCP values are null when the browser does not report them.
+     */
+    public record Snapshot(String url, String throttleProfile, boolean observedFromStart, Navigation navigation,
+                           Double firstPaintMs, Double firstContentfulPaintMs, Double largestContentfulPaintMs,
+                           String lcpElement, double cumulativeLayoutShift, LongTasks longTasks,
+                           Resources resources) {
+
+        /**
+         * Budget violations as readable messages; empty when every checked metric is within budget
+         */
+        public List<String> violations(Budget budget) {
+            List<String> violations = new ArrayList<>();
+            if (navigation != null) {
+                check(violations, "Page load", navigation.loadMs(), budget.loadMs(), "ms");
+                check(violations, "Time to first byte", navigation.ttfbMs(), budget.ttfbMs(), "ms");
+            }
+            check(violations, "First contentful paint", firstContentfulPaintMs, budget.fcpMs(), "ms");
+            check(violations, "Largest contentful paint", largestContentfulPaintMs, budget.lcpMs(), "ms");
+            check(violations, "Cumulative layout shift", cumulativeLayoutShift, budget.cls(), "");
+            check(violations, "Total blocking time", longTasks.totalBlockingTimeMs(), budget.tbtMs(), "ms");
+            check(violations, "Slowest image", resources.slowestImageMs(), budget.imageLoadMs(), "ms");
+            return violations;
+        }
+
+        public String summary() {
+            return String.format("load=%s ms, TTFB=%s ms, FCP=%s ms, LCP=%s ms (%s), CLS=%s, TBT=%s ms, %d resources, %d KB, throttle=%s",
+                navigation != null ? navigation.loadMs() : "-", navigation != null ? navigation.ttfbMs() : "-",
+                firstContentfulPaintMs != null ? firstContentfulPaintMs : "-",
+                largestContentfulPaintMs != null ? largestContentfulPaintMs : "-", lcpElement,
+                cumulativeLayoutShift, longTasks.totalBlockingTimeMs(), resources.count(), resources.transferBytes() / 1024,
+                throttleProfile);
+        }
+
+        public String toJson() {
+            try {
+                return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(this);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize page metrics", e);
+            }
+        }
+
+        private static void check(List<String> violations, String metric, Double actual, double max, String unit) {
+            // Zero or negative budgets are not checked; unreported metrics cannot be checked
+            if (max > 0 && actual != null && actual > max) {
+                violations.add(String.format("%s %s%s exceeds budget %s%s", metric, actual, unit, max, unit));
+            }
+        }
+    }
+
+    public record Navigation(String type, double ttfbMs, double domContentLoadedMs, double loadMs,
+                             double durationMs, long transferBytes) {
+    }
+
+    /**
+     * Long tasks (over 50 ms); blocking time counts the part of each task after first contentful paint
+     * that exceeds 50 ms
+     */
+    public record LongTasks(int count, double totalBlockingTimeMs, double longestMs) {
+    }
+
+    public record Resources(int count, long transferBytes, Map<String, Integer> byType, double slowestImageMs,
+                            List<Resource> slowest) {
+    }
+
+    public record Resource(String name, String initiatorType, double durationMs, long transferBytes) {
+    }
+
+    /**
+     * Thresholds from test.performance.*; a value of 0 disables that check
+     */
+    public record Budget(double loadMs, double ttfbMs, double fcpMs, double lcpMs, double cls, double tbtMs,
+                         double imageLoadMs) {
+        public static Budget fromConfig() {
+            return new Budget(TestConfigManager.getPerformancePageLoadMaxSeconds() * 1000,
+                              TestConfigManager.getPerformanceTtfbMaxMs(),
+                              TestConfigManager.getPerformanceFcpMaxMs(),
+                              TestConfigManager.getPerformanceLcpMaxMs(),
+                              TestConfigManager.getPerformanceClsMax(),
+                              TestConfigManager.getPerformanceTbtMaxMs(),
+                              TestConfigManager.getPerformanceImageLoadMaxSeconds() * 1000);
+        }
+    }
+
+    private PageMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Install the observers into every document the driver loads from now on (Chromium browsers only)
+     */
+    public static void install(WebDriver driver) {
+        try {
+            // Remote sessions only expose CDP once augmented
+            WebDriver cdpDriver = driver.getClass() == RemoteWebDriver.class ? new Augmenter().augment(driver) : driver;
+            if (cdpDriver instanceof HasCdp cdp) {
+                cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT));
+                logger.debug("Performance observers installed before navigation");
+            } else {
+                logger.debug("No CDP support, performance observers are installed on first collection");
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Could not install performance observers: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Collect the current document's metrics; the result is also kept for the scenario report
+     * The driver's throttle profile is recorded with them, since throttled numbers are not comparable.
+     */
+    public static Snapshot collect(WebDriver driver) {
+        Object json = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT);
+        try {
+            ObjectNode metrics = (ObjectNode) MAPPER.readTree(String.valueOf(json));
+            metrics.put("throttleProfile", EnterpriseWebDriverManager.getThrottleProfile());
+            Snapshot snapshot = MAPPER.treeToValue(metrics, Snapshot.class);
+            lastSnapshot.set(snapshot);
+            logger.debug("Page metrics for {}: {}", snapshot.url(), snapshot.summary());
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unexpected page metrics from browser: " + json, e);
+        }
+    }
+
+    /**
+     * Last snapshot collected on this thread, cleared by the call
+     */
+    public static Snapshot takeLast() {
+        Snapshot snapshot = lastSnapshot.get();
+        lastSnapshot.remove();
+        return snapshot;
+    }
+}
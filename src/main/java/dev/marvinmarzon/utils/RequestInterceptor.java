@@ -0,0 +1,282 @@
+package dev.marvinmarzon.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks or stubs third-party requests (analytics, fonts, embeds) through the DevTools Fetch domain
+ * Rules come from test.intercept.rule.&lt;name&gt; properties:
+ * <pre>
+ * test.intercept.rule.analytics=block *://www.google-analytics.com/*
+ * test.intercept.rule.fonts=stub *://fonts.googleapis.com/* 200 text/css
+ * test.intercept.rule.config=stub *://cdn.example.com/config.json 200 application/json {"ads":false}
+ * </pre>
+ * Only URLs matching a rule are paused, so other requests are not slowed down. The first request of
+ * each rule in the JVM passes through once and its time to response headers is kept as that rule's
+ * reference cost, which turns hit counts into an estimate of the request time avoided.
+ */
+public class RequestInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RequestInterceptor.class);
+    private static final ThreadLocal<RequestInterceptor> interceptorThreadLocal = new ThreadLocal<>();
+
+    // JVM-wide counters for the suite summary
+    private static final Map<String, LongAdder> suiteHits = new ConcurrentHashMap<>();
+    private static final Map<String, Double> referenceMillis = new ConcurrentHashMap<>();
+    private static final Set<String> referenceClaimed = ConcurrentHashMap.newKeySet();
+    private static final LongAdder suitePageLoads = new LongAdder();
+
+    public enum Action { BLOCK, STUB }
+
+    /**
+     * One interception rule; the pattern uses the Fetch domain's wildcards ('*' and '?')
+     */
+    public record Rule(String name, Action action, String urlPattern, int status, String contentType, String body) {
+
+        /**
+         * Parse "block &lt;pattern&gt;" or "stub &lt;pattern&gt; [status] [content type] [body]"
+         */
+        public static Rule parse(String name, String spec) {
+            String[] parts = spec.trim().split("\\s+", 5);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Invalid intercept rule " + name + ": " + spec);
+            }
+            Action action = Action.valueOf(parts[0].toUpperCase());
+            try {
+                int status = parts.length > 2 ? Integer.parseInt(parts[2]) : 200;
+                String contentType = parts.length > 3 ? parts[3] : "text/plain";
+                String body = parts.length > 4 ? parts[4] : "";
+                return new Rule(name, action, parts[1], status, contentType, body);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid status in intercept rule " + name + ": " + spec, e);
+            }
+        }
+
+        private static Pattern toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            for (char c : glob.toCharArray()) {
+                switch (c) {
+                    case '*' -> regex.append(".*");
+                    case '?' -> regex.append('.');
+                    default -> regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    private record Sample(String rule, long startNanos) {
+    }
+
+    private final DevTools devTools;
+    private final List<Rule> rules;
+    private final boolean measure;
+    private final List<Pattern> compiled = new ArrayList<>();
+    private final Map<String, AtomicLong> hits = new LinkedHashMap<>();
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+    private final AtomicLong pageLoads = new AtomicLong();
+    private final List<Runnable> listeners = new ArrayList<>();
+
+    private RequestInterceptor(DevTools devTools, List<Rule> rules, boolean measure) {
+        this.devTools = devTools;
+        this.rules = rules;
+        this.measure = measure;
+        for (Rule rule : rules) {
+            compiled.add(Rule.toRegex(rule.urlPattern()));
+            hits.put(rule.name(), new AtomicLong());
+        }
+    }
+
+    /**
+     * Install the configured rules on the given driver for the scenario on the current thread
+     */
+    public static void install(WebDriver driver) {
+        if (!TestConfigManager.isInterceptEnabled()) {
+            return;
+        }
+        List<Rule> rules = new ArrayList<>();
+        TestConfigManager.getInterceptRules().forEach((name, spec) -> rules.add(Rule.parse(name, spec)));
+        if (rules.isEmpty()) {
+            return;
+        }
+        Optional<DevTools> devTools = NetworkRecorder.devTools(driver);
+        if (devTools.isEmpty()) {
+            logger.info("Request interception needs a Chromium browser with DevTools; {} rules not applied", rules.size());
+            return;
+        }
+
+        RequestInterceptor interceptor = new RequestInterceptor(devTools.get(), rules,
+                                                                TestConfigManager.isInterceptMeasureEnabled());
+        interceptor.attach();
+        interceptorThreadLocal.set(interceptor);
+        logger.debug("Request interception active with {} rules on thread: {}", rules.size(),
+                    Thread.currentThread().getId());
+    }
+
+    /**
+     * Stop intercepting for the current thread and describe its hits and the request time avoided
+     */
+    public static String reportAndStop() {
+        RequestInterceptor interceptor = interceptorThreadLocal.get();
+        interceptorThreadLocal.remove();
+        if (interceptor == null) {
+            return null;
+        }
+        interceptor.detach();
+        suitePageLoads.add(interceptor.pageLoads.get());
+        return interceptor.report();
+    }
+
+    /**
+     * Log suite-wide hits per rule and the estimated request time avoided
+     */
+    public static void logStatistics() {
+        if (suiteHits.isEmpty()) {
+            return;
+        }
+        double avoided = 0;
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(suiteHits).entrySet()) {
+            Double reference = referenceMillis.get(entry.getKey());
+            long count = entry.getValue().sum();
+            avoided += reference != null ? reference * count : 0;
+            logger.info("Intercept rule {}: {} hits, reference {} ms", entry.getKey(), count,
+                       reference != null ? String.format("%.1f", reference) : "-");
+        }
+        long loads = suitePageLoads.sum();
+        logger.info("Estimated request time avoided: {} ms over {} page loads ({} ms per page load)",
+                   Math.round(avoided), loads, loads > 0 ? Math.round(avoided / loads) : "-");
+    }
+
+    private void attach() {
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (Rule rule : rules) {
+            patterns.add(Map.of("urlPattern", rule.urlPattern(), "requestStage", "Request"));
+            if (measure) {
+                // Only the one sampled request per rule is continued and pauses again at the response
+                patterns.add(Map.of("urlPattern", rule.urlPattern(), "requestStage", "Response"));
+            }
+        }
+        listeners.add(DevToolsListeners.subscribe(devTools, "Fetch.requestPaused", this::onRequestPaused));
+        listeners.add(DevToolsListeners.subscribe(devTools, "Page.loadEventFired", params -> pageLoads.incrementAndGet()));
+        devTools.send(new Command<>("Page.enable", Map.of()));
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+    }
+
+    /**
+     * Remove this interceptor's listeners and stop pausing requests; requests still paused are
+     * released by the browser when the Fetch domain is disabled
+     */
+    private void detach() {
+        listeners.forEach(Runnable::run);
+        listeners.clear();
+        try {
+            devTools.send(new Command<>("Fetch.disable", Map.of()));
+        } catch (RuntimeException e) {
+            logger.trace("Could not disable fetch domain: {}", e.getMessage());
+        }
+    }
+
+    private void onRequestPaused(Map<String, Object> params) {
+        String requestId = (String) params.get("requestId");
+        try {
+            if (params.containsKey("responseStatusCode") || params.containsKey("responseErrorReason")) {
+                finishSample(requestId);
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            String url = (String) ((Map<String, Object>) params.get("request")).get("url");
+            Rule rule = match(url);
+            if (rule == null) {
+                continueRequest(requestId);
+                return;
+            }
+            if (measure && !referenceMillis.containsKey(rule.name()) && referenceClaimed.add(rule.name())) {
+                samples.put(requestId, new Sample(rule.name(), System.nanoTime()));
+                logger.debug("Measuring reference cost of rule {} with: {}", rule.name(), url);
+                continueRequest(requestId);
+                return;
+            }
+
+            hits.get(rule.name()).incrementAndGet();
+            suiteHits.computeIfAbsent(rule.name(), name -> new LongAdder()).increment();
+            if (rule.action() == Action.BLOCK) {
+                devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+            } else {
+                devTools.send(new Command<>("Fetch.fulfillRequest", Map.of(
+                    "requestId", requestId,
+                    "responseCode", rule.status(),
+                    "responseHeaders", List.of(
+                        Map.of("name", "Content-Type", "value", rule.contentType()),
+                        Map.of("name", "Access-Control-Allow-Origin", "value", "*")),
+                    "body", Base64.getEncoder().encodeToString(rule.body().getBytes(StandardCharsets.UTF_8)))));
+            }
+        } catch (RuntimeException e) {
+            // A paused request that is never answered stalls the page
+            logger.debug("Could not intercept request {}: {}", requestId, e.getMessage());
+            continueRequest(requestId);
+        }
+    }
+
+    private void finishSample(String requestId) {
+        Sample sample = samples.remove(requestId);
+        if (sample != null) {
+            referenceMillis.put(sample.rule(), (System.nanoTime() - sample.startNanos()) / 1_000_000.0);
+        }
+        continueRequest(requestId);
+    }
+
+    private void continueRequest(String requestId) {
+        try {
+            devTools.send(new Command<>("Fetch.continueRequest", Map.of("requestId", requestId)));
+        } catch (RuntimeException e) {
+            logger.trace("Could not continue request {}: {}", requestId, e.getMessage());
+        }
+    }
+
+    private Rule match(String url) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (compiled.get(i).matcher(url).matches()) {
+                return rules.get(i);
+            }
+        }
+        return null;
+    }
+
+    private String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-20s %-6s %8s %14s %14s%n", "Rule", "Action", "Hits", "Reference ms", "Avoided ms"));
+        double avoided = 0;
+        for (Rule rule : rules) {
+            long count = hits.get(rule.name()).get();
+            Double reference = referenceMillis.get(rule.name());
+            double ruleAvoided = reference != null ? reference * count : 0;
+            avoided += ruleAvoided;
+            report.append(String.format("%-20s %-6s %8d %14s %14s%n", rule.name(), rule.action().name().toLowerCase(),
+                                        count, reference != null ? String.format("%.1f", reference) : "-",
+                                        reference != null ? String.format("%.1f", ruleAvoided) : "-"));
+        }
+        long loads = pageLoads.get();
+        report.append(String.format("%nPage loads: %d%n", loads));
+        report.append(String.format("Estimated request time avoided: %.1f ms (%s ms per page load)%n", avoided,
+                                    loads > 0 ? String.format("%.1f", avoided / loads) : "-"));
+        report.append("Reference cost: time to response headers of the rule's first request in this run.\n");
+        return report.toString();
+    }
+}
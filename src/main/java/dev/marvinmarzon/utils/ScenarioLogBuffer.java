@@ -0,0 +1,213 @@
+package dev.marvinmarzon.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import org.slf4j.MDC;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Logback appender that holds a scenario's log events back until the scenario's outcome is known
+ * Between {@link #begin(String)} and {@link #end(boolean)} events logged on the scenario thread are
+ * tagged with the scenario name (MDC key "scenario") and kept in a bounded ring buffer owned by
+ * that thread; events at or above the pass-through level are also forwarded immediately. A failed
+ * scenario forwards its buffer to the attached appenders and returns it for attachment, a passed one
+ * drops it. All other events are forwarded unchanged.
+ *
+ * Configuration (logback-test.xml): maxEvents (default 500), passthroughLevel (default WARN),
+ * attachmentPattern, and one or more appender-ref elements.
+ */
+public class ScenarioLogBuffer extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String MDC_KEY = "scenario";
+
+    private static final ThreadLocal<Buffer> currentBuffer = new ThreadLocal<>();
+    private static final ThreadLocal<Buffer> reusableBuffer = new ThreadLocal<>();
+    private static volatile ScenarioLogBuffer active;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final PatternLayout layout = new PatternLayout();
+    private int maxEvents = 500;
+    private Level passthroughLevel = Level.WARN;
+    private String attachmentPattern = "%d{HH:mm:ss.SSS} %-5level %logger{36} -- %msg%n";
+
+    /**
+     * Start buffering the current thread's events; does nothing when the appender is not configured
+     */
+    public static void begin(String scenarioName) {
+        ScenarioLogBuffer appender = active;
+        if (appender == null) {
+            return;
+        }
+        // The ring is reused by the thread's next scenario, so buffering allocates once per worker
+        Buffer buffer = reusableBuffer.get();
+        if (buffer == null || buffer.events.length != appender.maxEvents) {
+            buffer = new Buffer(appender.maxEvents);
+            reusableBuffer.set(buffer);
+        }
+        buffer.clear();
+        currentBuffer.set(buffer);
+        MDC.put(MDC_KEY, scenarioName);
+    }
+
+    /**
+     * Stop buffering; a failed scenario's events are forwarded and returned as text, otherwise dropped
+     *
+     * @return the formatted scenario log if the scenario failed, or null
+     */
+    public static String end(boolean failed) {
+        Buffer buffer = currentBuffer.get();
+        currentBuffer.remove();
+        MDC.remove(MDC_KEY);
+        ScenarioLogBuffer appender = active;
+        if (buffer == null || appender == null) {
+            return null;
+        }
+        try {
+            return failed ? appender.flush(buffer) : null;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    public void setMaxEvents(int maxEvents) {
+        this.maxEvents = Math.max(1, maxEvents);
+    }
+
+    public void setPassthroughLevel(String level) {
+        this.passthroughLevel = Level.toLevel(level, Level.WARN);
+    }
+
+    public void setAttachmentPattern(String attachmentPattern) {
+        this.attachmentPattern = attachmentPattern;
+    }
+
+    @Override
+    public void start() {
+        layout.setContext(getContext());
+        layout.setPattern(attachmentPattern);
+        layout.start();
+        super.start();
+        active = this;
+    }
+
+    @Override
+    public void stop() {
+        active = null;
+        super.stop();
+        layout.stop();
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        Buffer buffer = currentBuffer.get();
+        if (buffer == null) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+        boolean passthrough = event.getLevel().isGreaterOrEqual(passthroughLevel);
+        if (passthrough) {
+            appenders.appendLoopOnAppenders(event);
+        }
+        // Format the message and snapshot the MDC now; the event may be replayed after arguments changed
+        event.prepareForDeferredProcessing();
+        buffer.add(event, passthrough);
+    }
+
+    private String flush(Buffer buffer) {
+        StringBuilder text = new StringBuilder();
+        if (buffer.dropped > 0) {
+            text.append("... ").append(buffer.dropped).append(" earlier events dropped\n");
+        }
+        for (int i = 0; i < buffer.size; i++) {
+            int slot = (buffer.head + i) % buffer.events.length;
+            ILoggingEvent event = buffer.events[slot];
+            if (!buffer.forwarded[slot]) {
+                appenders.appendLoopOnAppenders(event);
+            }
+            text.append(layout.doLayout(event));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Ring of the newest events; only ever touched by its owning thread
+     */
+    private static final class Buffer {
+        private final ILoggingEvent[] events;
+        private final boolean[] forwarded;
+        private int head;
+        private int size;
+        private long dropped;
+
+        Buffer(int capacity) {
+            this.events = new ILoggingEvent[capacity];
+            this.forwarded = new boolean[capacity];
+        }
+
+        void add(ILoggingEvent event, boolean alreadyForwarded) {
+            int slot;
+            if (size < events.length) {
+                slot = (head + size++) % events.length;
+            } else {
+                slot = head;
+                head = (head + 1) % events.length;
+                dropped++;
+            }
+            events[slot] = event;
+            forwarded[slot] = alreadyForwarded;
+        }
+
+        void clear() {
+            Arrays.fill(events, null);
+            head = 0;
+            size = 0;
+            dropped = 0;
+        }
+    }
+
+    // AppenderAttachable delegation, as in logback's AsyncAppenderBase
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
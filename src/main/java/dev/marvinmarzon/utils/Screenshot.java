@@ -50,7 +50,13 @@ public class Screenshot {
             }
 
             if (driver instanceof TakesScreenshot) {
+                JfrEvents.ScreenshotCapture event = new JfrEvents.ScreenshotCapture();
+                event.begin();
                 byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                event.bytes = screenshot.length;
+                event.commit();
+                SuiteMetrics.SCREENSHOTS.increment();
+                SuiteMetrics.SCREENSHOT_BYTES.add(screenshot.length);
                 logger.debug("Screenshot captured successfully for thread: {}", Thread.currentThread().getId());
                 return screenshot;
             } else {
@@ -64,7 +70,8 @@ public class Screenshot {
     }
 
     /**
-     * Take screenshot and save to file
+     * Take screenshot and save to file, or append it to the artifact archive
+     * when test.artifact.backend=archive
      */
     public static String takeScreenshotToFile(String scenarioName) {
         try {
@@ -73,6 +80,9 @@ public class Screenshot {
                 return null;
             }
 
+            JfrEvents.ScreenshotWrite event = new JfrEvents.ScreenshotWrite();
+            event.begin();
+            event.bytes = screenshot.length;
             String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
             String sanitizedScenarioName = scenarioName.replaceAll("[^a-zA-Z0-9]", "_");
             String fileName = String.format("%s_%s_%d.png", 
@@ -80,10 +90,21 @@ public class Screenshot {
                                            timestamp, 
                                            Thread.currentThread().getId());
             
+            if (TestConfigManager.isArtifactArchiveBackend()) {
+                ArtifactArchive.getDefault().append(fileName, "image/png", screenshot);
+                String reference = ArtifactArchive.reference(fileName);
+                event.target = reference;
+                event.commit();
+                logger.info("Screenshot archived: {}", reference);
+                return reference;
+            }
+            
             Path filePath = Paths.get(SCREENSHOT_DIR, fileName);
             Files.write(filePath, screenshot);
             
             String absolutePath = filePath.toAbsolutePath().toString();
+            event.target = absolutePath;
+            event.commit();
             logger.info("Screenshot saved: {}", absolutePath);
             return absolutePath;
             
@@ -92,4 +113,24 @@ public class Screenshot {
             return null;
         }
     }
+
+    /**
+     * Take screenshot and compare it with the visual baseline for the given page
+     */
+    public static VisualDiffEngine.DiffResult compareWithBaseline(String pageName) {
+        byte[] screenshot = takeScreenshot();
+        if (screenshot == null) {
+            return null;
+        }
+
+        try {
+            VisualDiffEngine.DiffResult result = VisualDiffEngine.compareWithBaseline(pageName, screenshot);
+            logger.info("Visual comparison for {}: {} different pixels ({})",
+                       result.baselineKey(), result.differentPixels(), result.diffRatio());
+            return result;
+        } catch (Exception e) {
+            logger.error("Failed to compare screenshot with baseline for page: {}", pageName, e);
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package dev.marvinmarzon.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Merges Cucumber JSON, JUnit XML and Allure results from sharded runs into one report
+ * Each shard directory is expected to contain the runner's report files
+ * (cucumber-json-report.json, cucumber-junit-report.xml) and optionally an allure-results folder.
+ *
+ * Usage: ShardReportMerger &lt;outputDir&gt; &lt;shardDir&gt; [&lt;shardDir&gt; ...]
+ */
+public class ShardReportMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ShardReportMerger.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static final String JSON_REPORT = "cucumber-json-report.json";
+    public static final String JUNIT_REPORT = "cucumber-junit-report.xml";
+    public static final String ALLURE_RESULTS = "allure-results";
+
+    private static final String[] JUNIT_COUNTERS = {"tests", "skipped", "failures", "errors"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardReportMerger <outputDir> <shardDir> [<shardDir> ...]");
+            System.exit(1);
+        }
+
+        List<Path> shardDirs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardDirs.add(Paths.get(args[i]));
+        }
+        merge(Paths.get(args[0]), shardDirs);
+    }
+
+    /**
+     * Merge all report types found in the shard directories into the output directory
+     */
+    public static void merge(Path outputDir, List<Path> shardDirs) throws Exception {
+        Files.createDirectories(outputDir);
+        mergeJson(outputDir.resolve(JSON_REPORT), existing(shardDirs, JSON_REPORT));
+        mergeJUnit(outputDir.resolve(JUNIT_REPORT), existing(shardDirs, JUNIT_REPORT));
+        mergeAllure(outputDir.resolve(ALLURE_RESULTS), existing(shardDirs, ALLURE_RESULTS));
+        logger.info("Merged reports of {} shards into: {}", shardDirs.size(), outputDir.toAbsolutePath());
+    }
+
+    /**
+     * Concatenate features; scenarios of a feature split across shards are merged under one feature
+     */
+    public static void mergeJson(Path output, List<Path> reports) throws IOException {
+        if (reports.isEmpty()) {
+            return;
+        }
+        Map<String, ObjectNode> features = new LinkedHashMap<>();
+        for (Path report : reports) {
+            for (JsonNode feature : MAPPER.readTree(report.toFile())) {
+                String uri = feature.path("uri").asText();
+                ObjectNode merged = features.get(uri);
+                if (merged == null) {
+                    features.put(uri, ((ObjectNode) feature).deepCopy());
+                } else {
+                    ArrayNode elements = merged.withArray("elements");
+                    feature.path("elements").forEach(elements::add);
+                }
+            }
+        }
+
+        ArrayNode result = MAPPER.createArrayNode();
+        features.values().forEach(result::add);
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), result);
+        logger.info("Merged {} JSON reports ({} features) into: {}", reports.size(), features.size(), output);
+    }
+
+    /**
+     * Combine test cases into one testsuite, summing counters and time
+     */
+    public static void mergeJUnit(Path output, List<Path> reports) throws Exception {
+        if (reports.isEmpty()) {
+            return;
+        }
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        DocumentBuilder builder = factory.newDocumentBuilder();
+
+        Document merged = null;
+        Element mergedSuite = null;
+        double time = 0;
+        long[] counters = new long[JUNIT_COUNTERS.length];
+
+        for (Path report : reports) {
+            Document document = builder.parse(report.toFile());
+            Element suite = document.getDocumentElement();
+            for (int i = 0; i < JUNIT_COUNTERS.length; i++) {
+                counters[i] += parseLong(suite.getAttribute(JUNIT_COUNTERS[i]));
+            }
+            time += parseDouble(suite.getAttribute("time"));
+
+            if (merged == null) {
+                merged = document;
+                mergedSuite = suite;
+                continue;
+            }
+            NodeList testCases = suite.getChildNodes();
+            for (int i = 0; i < testCases.getLength(); i++) {
+                Node testCase = testCases.item(i);
+                if (testCase.getNodeType() == Node.ELEMENT_NODE) {
+                    mergedSuite.appendChild(merged.importNode(testCase, true));
+                }
+            }
+        }
+
+        for (int i = 0; i < JUNIT_COUNTERS.length; i++) {
+            mergedSuite.setAttribute(JUNIT_COUNTERS[i], String.valueOf(counters[i]));
+        }
+        mergedSuite.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+        logger.info("Merged {} JUnit reports ({} tests) into: {}", reports.size(), counters[0], output);
+    }
+
+    /**
+     * Allure result files are uniquely named, so merging is a copy into one results folder
+     */
+    public static void mergeAllure(Path output, List<Path> resultDirs) throws IOException {
+        if (resultDirs.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(output);
+        int copied = 0;
+        for (Path resultDir : resultDirs) {
+            try (Stream<Path> files = Files.list(resultDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.isRegularFile(file)) {
+                        Files.copy(file, output.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                        copied++;
+                    }
+                }
+            }
+        }
+        logger.info("Merged {} Allure result files into: {}", copied, output);
+    }
+
+    private static List<Path> existing(List<Path> shardDirs, String name) {
+        List<Path> paths = new ArrayList<>();
+        for (Path shardDir : shardDirs) {
+            Path path = shardDir.resolve(name);
+            if (Files.exists(path)) {
+                paths.add(path);
+            } else {
+                logger.warn("Shard {} has no {}", shardDir, name);
+            }
+        }
+        return paths;
+    }
+
+    private static long parseLong(String value) {
+        return value == null || value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private static double parseDouble(String value) {
+        return value == null || value.isEmpty() ? 0 : Double.parseDouble(value.replace(",", ""));
+    }
+}
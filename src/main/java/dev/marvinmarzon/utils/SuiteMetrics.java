@@ -0,0 +1,220 @@
+package dev.marvinmarzon.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide registry of live suite telemetry, rendered in the Prometheus text format
+ * Recording is a LongAdder increment (plus a bucket search for histograms), so scenario threads
+ * never contend on a lock. Rendering reads the adders without stopping writers and appends straight
+ * into a caller-owned buffer; {@link MetricsEndpoint} serves it over HTTP.
+ */
+public final class SuiteMetrics {
+
+    // Seconds; web UI steps and waits range from milliseconds to minutes
+    private static final double[] LATENCY_BUCKETS = {
+        0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300};
+
+    private static final List<Metric> metrics = new CopyOnWriteArrayList<>();
+
+    public static final Gauge PICKLES_QUEUED = register(new Gauge(
+        "suite_pickles_queued", "Scenarios handed to the worker pool and not yet started"));
+    public static final Histogram SCENARIO_DURATION = register(new Histogram(
+        "suite_scenario_duration_seconds", "Duration of finished scenarios", LATENCY_BUCKETS));
+    public static final Counter SCENARIOS_PASSED = register(new Counter(
+        "suite_scenarios_total", "Finished scenarios by status", "status=\"passed\""));
+    public static final Counter SCENARIOS_FAILED = register(new Counter(
+        "suite_scenarios_total", null, "status=\"failed\""));
+    public static final Counter SCENARIOS_SKIPPED = register(new Counter(
+        "suite_scenarios_total", null, "status=\"skipped\""));
+    public static final Histogram STEP_DURATION = register(new Histogram(
+        "suite_step_duration_seconds", "Duration of finished Gherkin steps", LATENCY_BUCKETS));
+    public static final Histogram DRIVER_CREATION = register(new Histogram(
+        "suite_driver_creation_seconds", "Time to create and configure a WebDriver session", LATENCY_BUCKETS));
+    public static final Counter DRIVER_CREATION_FAILURES = register(new Counter(
+        "suite_driver_creation_failures_total", "WebDriver sessions that could not be created", null));
+    public static final Counter SCREENSHOTS = register(new Counter(
+        "suite_screenshots_total", "Screenshots captured", null));
+    public static final Counter SCREENSHOT_BYTES = register(new Counter(
+        "suite_screenshot_bytes_total", "Bytes of captured screenshots", null));
+    public static final Histogram WAIT_DURATION = register(new Histogram(
+        "suite_wait_seconds", "Time spent in explicit waits", LATENCY_BUCKETS));
+    public static final Counter WAIT_TIMEOUTS = register(new Counter(
+        "suite_wait_timeouts_total", "Explicit waits that timed out", null));
+
+    private SuiteMetrics() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Register a gauge whose value is read at scrape time, e.g. a collection size
+     */
+    public static void registerGauge(String name, String help, LongSupplier value) {
+        register(new SuppliedGauge(name, help, value));
+    }
+
+    /**
+     * Append every metric in the Prometheus text exposition format (version 0.0.4)
+     */
+    public static void writeTo(StringBuilder out) {
+        for (Metric metric : metrics) {
+            if (metric.help != null) {
+                out.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+                out.append("# TYPE ").append(metric.name).append(' ').append(metric.type()).append('\n');
+            }
+            metric.writeSamples(out);
+        }
+    }
+
+    private static <T extends Metric> T register(T metric) {
+        metrics.add(metric);
+        return metric;
+    }
+
+    /**
+     * Metrics sharing a name (one per label value) are registered consecutively; only the first has help text
+     */
+    private abstract static class Metric {
+        final String name;
+        final String help;
+
+        Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        abstract String type();
+
+        abstract void writeSamples(StringBuilder out);
+    }
+
+    public static final class Counter extends Metric {
+        private final String labels;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name, String help, String labels) {
+            super(name, help);
+            this.labels = labels;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        @Override
+        String type() {
+            return "counter";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            out.append(name);
+            if (labels != null) {
+                out.append('{').append(labels).append('}');
+            }
+            out.append(' ').append(value.sum()).append('\n');
+        }
+    }
+
+    public static final class Gauge extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        private Gauge(String name, String help) {
+            super(name, help);
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public void decrement() {
+            value.decrement();
+        }
+
+        @Override
+        String type() {
+            return "gauge";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            out.append(name).append(' ').append(value.sum()).append('\n');
+        }
+    }
+
+    private static final class SuppliedGauge extends Metric {
+        private final LongSupplier value;
+
+        SuppliedGauge(String name, String help, LongSupplier value) {
+            super(name, help);
+            this.value = value;
+        }
+
+        @Override
+        String type() {
+            return "gauge";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            out.append(name).append(' ').append(value.getAsLong()).append('\n');
+        }
+    }
+
+    /**
+     * Fixed-bucket histogram; buckets are stored individually and made cumulative while rendering
+     */
+    public static final class Histogram extends Metric {
+        private final double[] upperBounds;
+        private final String[] bucketPrefixes;
+        private final LongAdder[] buckets;
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Histogram(String name, String help, double[] upperBounds) {
+            super(name, help);
+            this.upperBounds = upperBounds.clone();
+            this.bucketPrefixes = new String[upperBounds.length + 1];
+            this.buckets = new LongAdder[upperBounds.length + 1];
+            for (int i = 0; i <= upperBounds.length; i++) {
+                String bound = i < upperBounds.length ? Double.toString(upperBounds[i]) : "+Inf";
+                bucketPrefixes[i] = name + "_bucket{le=\"" + bound + "\"} ";
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void observeNanos(long nanos) {
+            observe(nanos / 1_000_000_000.0);
+        }
+
+        public void observe(double seconds) {
+            int index = Arrays.binarySearch(upperBounds, seconds);
+            buckets[index >= 0 ? index : -index - 1].increment();
+            sum.add(seconds);
+        }
+
+        @Override
+        String type() {
+            return "histogram";
+        }
+
+        @Override
+        void writeSamples(StringBuilder out) {
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                out.append(bucketPrefixes[i]).append(cumulative).append('\n');
+            }
+            // Writers may land between the reads; the count follows the +Inf bucket so the series stay consistent
+            out.append(name).append("_sum ").append(sum.sum()).append('\n');
+            out.append(name).append("_count ").append(cumulative).append('\n');
+        }
+    }
+}
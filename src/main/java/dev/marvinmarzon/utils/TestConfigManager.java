@@ -5,15 +5,24 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Enhanced configuration manager for enterprise Cucumber-TestNG execution
  * Supports environment-specific configurations and runtime overrides
+ * The layered configuration is compiled once into an immutable typed snapshot;
+ * getters are lock-free field reads and updates atomically swap the whole snapshot.
+ * Scenario-scoped overrides are layered over the snapshot for the current thread only.
  */
 public class TestConfigManager {
     private static final Logger logger = LoggerFactory.getLogger(TestConfigManager.class);
-    private static Properties properties;
+    private static final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private static final ThreadLocal<ScenarioScope> scenarioScope = new ThreadLocal<>();
     private static final String DEFAULT_CONFIG_FILE = "testConfig.properties";
     
     static {
@@ -21,30 +30,33 @@ public class TestConfigManager {
     }
 
     private static void loadConfiguration() {
-        properties = new Properties();
+        Map<String, String> properties = new HashMap<>();
         
         // Load default configuration
-        loadPropertiesFile(DEFAULT_CONFIG_FILE);
+        loadPropertiesFile(DEFAULT_CONFIG_FILE, properties);
         
         // Load environment-specific configuration if exists
-        String environment = getEnvironment();
+        String environment = System.getProperty("test.environment",
+                                                 properties.getOrDefault("test.environment", "local"));
         String envConfigFile = String.format("testConfig-%s.properties", environment);
-        loadPropertiesFile(envConfigFile);
+        loadPropertiesFile(envConfigFile, properties);
         
         // Override with system properties (for Maven/CI integration)
-        overrideWithSystemProperties();
+        overrideWithSystemProperties(properties);
         
+        snapshot.set(ConfigSnapshot.compile(properties));
         logger.info("Configuration loaded for environment: {}", environment);
         logger.debug("Final configuration properties count: {}", properties.size());
     }
 
-    private static void loadPropertiesFile(String fileName) {
+    private static void loadPropertiesFile(String fileName, Map<String, String> properties) {
         try (InputStream inputStream = TestConfigManager.class
                 .getClassLoader().getResourceAsStream(fileName)) {
             if (inputStream != null) {
                 Properties fileProperties = new Properties();
                 fileProperties.load(inputStream);
-                properties.putAll(fileProperties);
+                fileProperties.stringPropertyNames()
+                    .forEach(key -> properties.put(key, fileProperties.getProperty(key)));
                 logger.debug("Loaded {} properties from: {}", fileProperties.size(), fileName);
             } else {
                 logger.debug("Configuration file not found: {}", fileName);
@@ -54,160 +66,624 @@ public class TestConfigManager {
         }
     }
 
-    private static void overrideWithSystemProperties() {
+    private static void overrideWithSystemProperties(Map<String, String> properties) {
         int overrideCount = 0;
         // Override with system properties for CI/CD flexibility
-        System.getProperties().forEach((key, value) -> {
-            String keyStr = key.toString();
-            if (keyStr.startsWith("test.")) {
-                properties.setProperty(keyStr, value.toString());
-                logger.debug("Override property: {} = {}", keyStr, value);
+        Properties systemProperties = System.getProperties();
+        for (String key : systemProperties.stringPropertyNames()) {
+            if (key.startsWith("test.")) {
+                String value = systemProperties.getProperty(key);
+                properties.put(key, value);
+                overrideCount++;
+                logger.debug("Override property: {} = {}", key, value);
             }
-        });
+        }
         
         if (overrideCount > 0) {
             logger.info("Applied {} system property overrides", overrideCount);
         }
     }
 
+    /**
+     * Overrides of the scenario running on the current thread, compiled lazily over the base snapshot
+     */
+    private static final class ScenarioScope {
+        private final Map<String, String> overrides = new HashMap<>();
+        private ConfigSnapshot base;
+        private ConfigSnapshot compiled;
+
+        private ConfigSnapshot resolve(ConfigSnapshot currentBase) {
+            if (compiled == null || base != currentBase) {
+                base = currentBase;
+                compiled = currentBase.with(overrides);
+            }
+            return compiled;
+        }
+    }
+
+    /**
+     * Current configuration snapshot, including scenario-scoped overrides of the current thread
+     */
+    static ConfigSnapshot current() {
+        ConfigSnapshot base = snapshot.get();
+        ScenarioScope scope = scenarioScope.get();
+        return scope != null ? scope.resolve(base) : base;
+    }
+
+    /**
+     * Atomically replace the snapshot, retrying if another thread swapped it concurrently
+     */
+    private static void update(UnaryOperator<ConfigSnapshot> updater) {
+        ConfigSnapshot previous;
+        ConfigSnapshot next;
+        do {
+            previous = snapshot.get();
+            next = updater.apply(previous);
+        } while (!snapshot.compareAndSet(previous, next));
+    }
+
     // Browser Configuration
     public static String getBrowser() {
-        return getProperty("test.browser", "chrome");
+        return current().browser;
     }
 
     public static boolean getHeadlessMode() {
-        return Boolean.parseBoolean(getProperty("test.headless", "false"));
+        return current().headless;
     }
 
     public static boolean isRemoteExecution() {
-        return Boolean.parseBoolean(getProperty("test.remote", "false"));
+        return current().remote;
     }
 
     public static String getGridUrl() {
-        return getProperty("test.grid.url", "http://localhost:4444/wd/hub");
+        return current().gridUrl;
+    }
+
+    public static int getViewportWidth() {
+        return current().viewportWidth;
+    }
+
+    public static int getViewportHeight() {
+        return current().viewportHeight;
     }
 
     // Environment Configuration
     public static String getEnvironment() {
-        return getProperty("test.environment", "local");
+        return current().environment;
     }
 
     public static String getBaseUrl() {
-        String customUrl = getProperty("test.base.url");
-        if (customUrl != null && !customUrl.isEmpty()) {
-            return customUrl;
-        }
-        
-        // Fallback to environment-specific URLs
-        String environment = getEnvironment();
-        switch (environment.toLowerCase()) {
-            case "dev":
-                return "https://dev.example.com";
-            case "staging":
-                return "https://staging.example.com";
-            case "prod":
-                return "https://prod.example.com";
-            default:
-                return "http://localhost:3000";
-        }
+        return current().baseUrl;
     }
 
     // Timeout Configuration
     public static int getImplicitWait() {
-        return Integer.parseInt(getProperty("test.timeout.implicit", "10"));
+        return current().implicitWait;
     }
 
     public static int getExplicitWait() {
-        return Integer.parseInt(getProperty("test.timeout.explicit", "30"));
+        return current().explicitWait;
     }
 
     public static int getPageLoadTimeout() {
-        return Integer.parseInt(getProperty("test.timeout.pageload", "60"));
+        return current().pageLoadTimeout;
     }
 
     // Reporting Configuration
     public static boolean isScreenshotEnabled() {
-        return Boolean.parseBoolean(getProperty("test.screenshot.enabled", "true"));
+        return current().screenshotEnabled;
     }
 
     public static boolean isVideoRecordingEnabled() {
-        return Boolean.parseBoolean(getProperty("test.video.enabled", "false"));
+        return current().videoEnabled;
     }
 
     public static String getReportPath() {
-        return getProperty("test.report.path", "target/reports");
+        return current().reportPath;
+    }
+
+    public static String getReportingPlugins() {
+        return current().reporting.plugins();
+    }
+
+    public static boolean isReportingAsyncEnabled() {
+        return current().reporting.asyncEnabled();
+    }
+
+    public static String getReportingSyncPlugins() {
+        return current().reporting.syncPlugins();
+    }
+
+    public static int getReportingQueueCapacity() {
+        return current().reporting.queueCapacity();
+    }
+
+    public static int getReportingBatchSize() {
+        return current().reporting.batchSize();
+    }
+
+    public static boolean isReportingTimingEnabled() {
+        return current().reporting.timingEnabled();
+    }
+
+    public static boolean isMetricsEnabled() {
+        return current().metrics.enabled();
+    }
+
+    public static String getMetricsHost() {
+        return current().metrics.host();
+    }
+
+    public static int getMetricsPort() {
+        return current().metrics.port();
+    }
+
+    public static String getLatencyProfilePath() {
+        return current().latency.profilePath();
+    }
+
+    public static String getLatencyBaselinePath() {
+        return current().latency.baselinePath();
+    }
+
+    public static boolean isLatencyBaselineUpdate() {
+        return current().latency.baselineUpdate();
+    }
+
+    public static boolean isLatencyGateEnabled() {
+        return current().latency.gateEnabled();
+    }
+
+    public static double getLatencyGateThreshold() {
+        return current().latency.gateThreshold();
+    }
+
+    public static double getLatencyGateMinDeltaMs() {
+        return current().latency.gateMinDeltaMs();
+    }
+
+    public static int getLatencyGateMinSamples() {
+        return current().latency.gateMinSamples();
+    }
+
+    public static boolean isLogBufferEnabled() {
+        return current().reporting.logBufferEnabled();
+    }
+
+    public static boolean isJfrEnabled() {
+        return current().jfr.enabled();
+    }
+
+    public static String getJfrSettings() {
+        return current().jfr.settings();
+    }
+
+    public static String getJfrPath() {
+        return current().jfr.path();
+    }
+
+    public static String getArtifactBackend() {
+        return current().artifacts.backend();
+    }
+
+    public static boolean isArtifactArchiveBackend() {
+        return "archive".equalsIgnoreCase(getArtifactBackend());
+    }
+
+    public static String getArtifactArchivePath() {
+        return current().artifacts.archivePath();
+    }
+
+    public static int getArtifactSegmentSizeMb() {
+        return current().artifacts.segmentSizeMb();
+    }
+
+    // Navigation Configuration
+    public static boolean isSkipRedundantNavigation() {
+        return current().navigation.skipRedundant();
+    }
+
+    public static boolean isBackgroundSnapshotEnabled() {
+        return current().navigation.backgroundSnapshotEnabled();
+    }
+
+    // Flight Recorder Configuration
+    public static boolean isFlightRecorderEnabled() {
+        return current().flightRecorder.enabled();
+    }
+
+    public static boolean isFlightRecorderFramesEnabled() {
+        return current().flightRecorder.framesEnabled();
+    }
+
+    public static int getFlightRecorderWindowSeconds() {
+        return current().flightRecorder.windowSeconds();
+    }
+
+    public static long getFlightRecorderBudgetBytes() {
+        return current().flightRecorder.budgetBytes();
+    }
+
+    public static int getFlightRecorderCaptureEverySteps() {
+        return current().flightRecorder.captureEverySteps();
+    }
+
+    public static double getFlightRecorderFrameScale() {
+        return current().flightRecorder.frameScale();
+    }
+
+    // Performance Configuration
+    public static boolean isPerformanceObserversEnabled() {
+        return current().performance.observersEnabled();
+    }
+
+    public static double getPerformancePageLoadMaxSeconds() {
+        return current().performance.pageLoadMaxSeconds();
+    }
+
+    public static double getPerformanceImageLoadMaxSeconds() {
+        return current().performance.imageLoadMaxSeconds();
+    }
+
+    public static double getPerformanceTtfbMaxMs() {
+        return current().performance.ttfbMaxMs();
+    }
+
+    public static double getPerformanceFcpMaxMs() {
+        return current().performance.fcpMaxMs();
+    }
+
+    public static double getPerformanceLcpMaxMs() {
+        return current().performance.lcpMaxMs();
+    }
+
+    public static double getPerformanceClsMax() {
+        return current().performance.clsMax();
+    }
+
+    public static double getPerformanceTbtMaxMs() {
+        return current().performance.tbtMaxMs();
+    }
+
+    // Network Capture Configuration
+    public static boolean isNetworkCaptureEnabled() {
+        return current().networkCapture.enabled();
+    }
+
+    public static int getNetworkCaptureMaxEntries() {
+        return current().networkCapture.maxEntries();
+    }
+
+    // Throttling and Fixture Configuration
+    public static String getThrottleProfile() {
+        return current().throttleProfile;
+    }
+
+    public static String getFixtureRoot() {
+        return current().fixture.root();
+    }
+
+    public static int getFixturePort() {
+        return current().fixture.port();
+    }
+
+    // Request Interception Configuration
+    public static boolean isInterceptEnabled() {
+        return current().intercept.enabled();
+    }
+
+    public static boolean isInterceptMeasureEnabled() {
+        return current().intercept.measureEnabled();
+    }
+
+    public static Map<String, String> getInterceptRules() {
+        return current().intercept.rules();
+    }
+
+    // Caching Proxy Configuration
+    public static boolean isProxyCacheEnabled() {
+        return current().proxyCache.enabled();
+    }
+
+    public static int getProxyCachePort() {
+        return current().proxyCache.port();
+    }
+
+    public static String getProxyCacheDir() {
+        return current().proxyCache.dir();
+    }
+
+    public static long getProxyCacheMemoryBytes() {
+        return current().proxyCache.memoryBytes();
+    }
+
+    public static long getProxyCacheDiskBytes() {
+        return current().proxyCache.diskBytes();
+    }
+
+    public static long getProxyCacheOverrideTtlSeconds() {
+        return current().proxyCache.overrideTtlSeconds();
+    }
+
+    // Load Test Configuration
+    public static boolean isLoadTestEnabled() {
+        return current().loadTest.enabled();
+    }
+
+    public static String getLoadTestTags() {
+        return current().loadTest.tags();
+    }
+
+    public static int getLoadTestUsers() {
+        return current().loadTest.users();
+    }
+
+    public static int getLoadTestRampUpSeconds() {
+        return current().loadTest.rampUpSeconds();
+    }
+
+    public static int getLoadTestDurationSeconds() {
+        return current().loadTest.durationSeconds();
+    }
+
+    public static String getLoadTestThinkTimeMs() {
+        return current().loadTest.thinkTimeMs();
+    }
+
+    public static boolean isLoadTestReuseDriver() {
+        return current().loadTest.reuseDriver();
+    }
+
+    public static double getLoadTestMaxErrorPercent() {
+        return current().loadTest.maxErrorPercent();
+    }
+
+    public static String getLoadTestReportPath() {
+        return current().loadTest.reportPath();
+    }
+
+    // Visual Regression Configuration
+    public static String getVisualBaselinePath() {
+        return current().visual.baselinePath();
+    }
+
+    public static double getVisualThreshold() {
+        return current().visual.threshold();
+    }
+
+    public static int getVisualTolerance() {
+        return current().visual.tolerance();
+    }
+
+    public static boolean isVisualAntiAliasingEnabled() {
+        return current().visual.antiAliasing();
+    }
+
+    public static boolean isVisualEarlyExitEnabled() {
+        return current().visual.earlyExit();
     }
 
     // Parallel Execution Configuration
     public static int getThreadCount() {
-        return Integer.parseInt(getProperty("test.thread.count", "1"));
+        return current().threadCount;
     }
 
     public static boolean isParallelExecution() {
         return getThreadCount() > 1;
     }
 
+    public static boolean isScheduleEnabled() {
+        return current().schedule.enabled();
+    }
+
+    public static String getScheduleHistoryPath() {
+        return current().schedule.historyPath();
+    }
+
+    public static double getScheduleDefaultEstimateSeconds() {
+        return current().schedule.defaultEstimateSeconds();
+    }
+
+    public static int getShardIndex() {
+        return current().shard.index();
+    }
+
+    public static int getShardTotal() {
+        return current().shard.total();
+    }
+
+    public static String getShardStrategy() {
+        return current().shard.strategy();
+    }
+
+    public static String getShardHistoryPath() {
+        return current().shard.historyPath();
+    }
+
+    public static boolean isShardMode() {
+        return getShardTotal() > 1;
+    }
+
+    public static boolean isResultCacheEnabled() {
+        return current().resultCache.enabled();
+    }
+
+    public static boolean isResultCacheForced() {
+        return current().resultCache.forced();
+    }
+
+    public static String getResultCachePath() {
+        return current().resultCache.path();
+    }
+
+    public static boolean isRetryEnabled() {
+        return current().retry.enabled();
+    }
+
+    public static int getRetryMaxAttempts() {
+        return current().retry.maxAttempts();
+    }
+
+    public static int getRetryThreadCount() {
+        return current().retry.threadCount();
+    }
+
+    public static String getRetryStatsPath() {
+        return current().retry.statsPath();
+    }
+
+    public static boolean isRetryQuarantineEnabled() {
+        return current().retry.quarantineEnabled();
+    }
+
+    public static double getRetryQuarantineThreshold() {
+        return current().retry.quarantineThreshold();
+    }
+
+    public static int getRetryQuarantineMinRuns() {
+        return current().retry.quarantineMinRuns();
+    }
+
+    public static String getPriorityClasses() {
+        return current().priority.classes();
+    }
+
+    public static int getPriorityEarlyExitFailures() {
+        return current().priority.earlyExitFailures();
+    }
+
     // TestNG Configuration
     public static String getTestNGSuite() {
-        return getProperty("test.testng.suite", "testng.xml");
+        return current().testNGSuite;
+    }
+
+    public static boolean isFeatureCacheEnabled() {
+        return current().startup.featureCacheEnabled();
+    }
+
+    public static boolean isGlueIndexEnabled() {
+        return current().startup.glueIndexEnabled();
     }
 
     public static String getCucumberTags() {
-        return getProperty("test.cucumber.tags", "");
+        return current().cucumberTags;
     }
 
     // Database Configuration (if needed)
     public static String getDatabaseUrl() {
-        return getProperty("test.database.url", "");
+        return current().databaseUrl;
     }
 
     public static String getDatabaseUsername() {
-        return getProperty("test.database.username", "");
+        return current().databaseUsername;
     }
 
     public static String getDatabasePassword() {
-        return getProperty("test.database.password", "");
+        return current().databasePassword;
     }
 
     // API Configuration
     public static String getApiBaseUrl() {
-        return getProperty("test.api.base.url", "");
+        return current().apiBaseUrl;
     }
 
     public static String getApiKey() {
-        return getProperty("test.api.key", "");
+        return current().apiKey;
     }
 
     // Utility Methods
-    private static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+    public static String getProperty(String key) {
+        return current().get(key, null);
     }
 
-    public static String getProperty(String key) {
-        return properties.getProperty(key);
+    /**
+     * Properties under the given prefix keyed by the rest of their name, sorted by key
+     */
+    public static Map<String, String> getProperties(String prefix) {
+        return current().prefixed(prefix);
     }
 
     public static void setProperty(String key, String value) {
-        properties.setProperty(key, value);
+        update(config -> config.with(Map.of(key, value)));
         logger.debug("Property set: {} = {}", key, value);
     }
 
     public static Properties getAllProperties() {
-        return new Properties(properties);
+        Properties properties = new Properties();
+        properties.putAll(current().raw);
+        return properties;
+    }
+
+    // Scenario-scoped configuration overrides
+    /**
+     * Override a property for the scenario running on the current thread only.
+     * Other scenarios and the process-wide snapshot are not affected.
+     */
+    public static void setScenarioProperty(String key, String value) {
+        setScenarioProperties(Map.of(key, value));
+    }
+
+    public static void setScenarioProperties(Map<String, String> overrides) {
+        ScenarioScope scope = scenarioScope.get();
+        if (scope == null) {
+            scope = new ScenarioScope();
+            scenarioScope.set(scope);
+        }
+        scope.overrides.putAll(overrides);
+        scope.compiled = null;
+        logger.debug("Scenario overrides on thread {}: {}", Thread.currentThread().getId(), overrides);
+    }
+
+    public static void setScenarioBrowser(String browser, boolean headless) {
+        setScenarioProperties(Map.of(
+            "test.browser", browser,
+            "test.headless", String.valueOf(headless)));
+    }
+
+    public static void setScenarioViewport(int width, int height) {
+        setScenarioProperties(Map.of(
+            "test.viewport.width", String.valueOf(width),
+            "test.viewport.height", String.valueOf(height)));
+    }
+
+    public static void setScenarioBaseUrl(String baseUrl) {
+        setScenarioProperty("test.base.url", baseUrl);
+    }
+
+    public static boolean hasScenarioOverrides() {
+        return scenarioScope.get() != null;
+    }
+
+    /**
+     * Overrides of the scenario running on the current thread, empty when it has none
+     */
+    public static Map<String, String> getScenarioOverrides() {
+        ScenarioScope scope = scenarioScope.get();
+        return scope != null ? Map.copyOf(scope.overrides) : Map.of();
+    }
+
+    /**
+     * Drop scenario overrides of the current thread (call at scenario teardown)
+     */
+    public static void clearScenarioOverrides() {
+        scenarioScope.remove();
     }
 
-    // Runtime configuration updates
+    // Runtime configuration updates (process-wide; prefer scenario overrides in parallel runs)
     public static void updateBrowserConfig(String browser, boolean headless) {
-        setProperty("test.browser", browser);
-        setProperty("test.headless", String.valueOf(headless));
+        update(config -> config.with(Map.of(
+            "test.browser", browser,
+            "test.headless", String.valueOf(headless))));
         logger.info("Updated browser configuration: {} (headless: {})", browser, headless);
     }
 
     public static void updateEnvironmentConfig(String environment, String baseUrl) {
-        setProperty("test.environment", environment);
+        Map<String, String> overrides = new HashMap<>();
+        overrides.put("test.environment", environment);
         if (baseUrl != null && !baseUrl.isEmpty()) {
-            setProperty("test.base.url", baseUrl);
+            overrides.put("test.base.url", baseUrl);
         }
+        update(config -> config.with(overrides));
         logger.info("Updated environment configuration: {} ({})", environment, baseUrl);
     }
 
@@ -231,8 +707,8 @@ public class TestConfigManager {
     // Debug method to log all configuration
     public static void logAllConfiguration() {
         logger.info("=== Current Test Configuration ===");
-        properties.entrySet().stream()
-            .filter(entry -> entry.getKey().toString().startsWith("test."))
+        new TreeMap<>(current().raw).entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith("test."))
             .forEach(entry -> logger.info("  {} = {}", entry.getKey(), entry.getValue()));
         logger.info("=== End Configuration ===");
     }
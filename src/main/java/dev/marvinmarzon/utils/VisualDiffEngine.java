@@ -0,0 +1,322 @@
+package dev.marvinmarzon.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel tiled visual-diff engine for screenshot baselines
+ * Images are decoded once into primitive int arrays and compared tile by tile on a fork-join pool,
+ * with per-channel anti-aliasing tolerance and an early exit once the verdict is certain.
+ */
+public class VisualDiffEngine {
+    private static final Logger logger = LoggerFactory.getLogger(VisualDiffEngine.class);
+    private static final ConcurrentHashMap<String, DecodedImage> baselineCache = new ConcurrentHashMap<>();
+
+    private static final int TILE_SIZE = 64;
+    private static final int TILES_PER_TASK = 16;
+    private static final int DIFF_COLOR = 0xFFFF0000;
+
+    /**
+     * Decoded image backed by a packed RGB int array
+     */
+    public record DecodedImage(int width, int height, int[] pixels) {
+    }
+
+    /**
+     * Result of comparing a screenshot against its baseline
+     */
+    public record DiffResult(String baselineKey, int width, int height, long differentPixels, double diffRatio,
+                             boolean earlyExit, boolean baselineCreated, int[] mask) {
+        public boolean matches(double threshold) {
+            return baselineCreated || diffRatio <= threshold;
+        }
+
+        /**
+         * Encode the diff mask as PNG; only done when the mask is actually attached
+         */
+        public byte[] diffMaskPng() throws IOException {
+            return mask != null ? encode(width, height, mask) : null;
+        }
+    }
+
+    private VisualDiffEngine() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Compare a PNG screenshot with the baseline for the given page and viewport.
+     * A missing baseline is recorded from the screenshot and reported as created.
+     */
+    public static DiffResult compareWithBaseline(String pageName, byte[] png) throws IOException {
+        DecodedImage actual = decode(png);
+        String key = baselineKey(pageName, actual.width(), actual.height());
+        Path baselineFile = Paths.get(TestConfigManager.getVisualBaselinePath(), key + ".png");
+
+        DecodedImage baseline = baselineCache.computeIfAbsent(key, k -> loadBaseline(baselineFile));
+        if (baseline == null) {
+            if (createBaseline(baselineFile, png)) {
+                baselineCache.put(key, actual);
+                logger.info("Visual baseline created: {}", baselineFile.toAbsolutePath());
+                return new DiffResult(key, actual.width(), actual.height(), 0, 0.0, false, true, null);
+            }
+            // Another thread or JVM created it first; compare against that one
+            baseline = baselineCache.computeIfAbsent(key, k -> loadBaseline(baselineFile));
+            if (baseline == null) {
+                throw new IOException("Could not read visual baseline created concurrently: " + baselineFile);
+            }
+        }
+
+        long maxDiffPixels = TestConfigManager.isVisualEarlyExitEnabled()
+            ? (long) Math.floor(TestConfigManager.getVisualThreshold() * actual.pixels().length)
+            : Long.MAX_VALUE;
+        return compare(key, baseline, actual, TestConfigManager.getVisualTolerance(),
+                       TestConfigManager.isVisualAntiAliasingEnabled(), maxDiffPixels);
+    }
+
+    /**
+     * Compare two decoded images tile by tile in parallel
+     *
+     * @param tolerance     maximum per-channel delta still treated as equal
+     * @param antiAliasing  ignore differences matched by a neighbouring pixel within tolerance
+     * @param maxDiffPixels stop comparing once more than this many pixels differ
+     */
+    public static DiffResult compare(String key, DecodedImage baseline, DecodedImage actual,
+                                     int tolerance, boolean antiAliasing, long maxDiffPixels) {
+        int total = actual.pixels().length;
+        if (baseline.width() != actual.width() || baseline.height() != actual.height()) {
+            logger.warn("Visual baseline {} size {}x{} differs from screenshot size {}x{}", key,
+                       baseline.width(), baseline.height(), actual.width(), actual.height());
+            return new DiffResult(key, actual.width(), actual.height(), total, 1.0, false, false, null);
+        }
+
+        int[] mask = new int[total];
+        TileComparison comparison = new TileComparison(baseline, actual, mask, tolerance, antiAliasing, maxDiffPixels);
+        int tilesX = (actual.width() + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesY = (actual.height() + TILE_SIZE - 1) / TILE_SIZE;
+        ForkJoinPool.commonPool().invoke(new TileTask(comparison, tilesX, 0, tilesX * tilesY));
+
+        long differentPixels = comparison.differentPixels.get();
+        double diffRatio = (double) differentPixels / total;
+
+        logger.debug("Visual diff {} - different pixels: {} ({}), early exit: {}",
+                    key, differentPixels, diffRatio, comparison.aborted);
+        return new DiffResult(key, actual.width(), actual.height(), differentPixels, diffRatio,
+                              comparison.aborted, false, differentPixels > 0 ? mask : null);
+    }
+
+    /**
+     * Decode PNG bytes once into a packed RGB int array
+     */
+    public static DecodedImage decode(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            throw new IOException("Unsupported image format");
+        }
+        BufferedImage rgb = source;
+        if (source.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(source, 0, 0, null);
+            graphics.dispose();
+        }
+        int[] pixels = ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData();
+        return new DecodedImage(rgb.getWidth(), rgb.getHeight(), pixels);
+    }
+
+    /**
+     * Drop cached baselines (e.g. after baselines were updated on disk)
+     */
+    public static void clearBaselineCache() {
+        baselineCache.clear();
+    }
+
+    private static String baselineKey(String pageName, int width, int height) {
+        return String.format("%s_%dx%d", pageName.replaceAll("[^a-zA-Z0-9]", "_"), width, height);
+    }
+
+    /**
+     * Publish a new baseline atomically: the complete file is written under a temporary name and
+     * linked into place, which fails if the baseline already exists, so readers never see a partial
+     * file and concurrent creators cannot overwrite each other
+     *
+     * @return false if the baseline already existed
+     */
+    private static boolean createBaseline(Path baselineFile, byte[] png) throws IOException {
+        Files.createDirectories(baselineFile.getParent());
+        Path temporary = Files.createTempFile(baselineFile.getParent(), baselineFile.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, png);
+            try {
+                Files.createLink(baselineFile, temporary);
+            } catch (UnsupportedOperationException e) {
+                // No hard links on this file system; a plain move still refuses an existing target
+                Files.move(temporary, baselineFile);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static DecodedImage loadBaseline(Path baselineFile) {
+        if (!Files.exists(baselineFile)) {
+            return null;
+        }
+        try {
+            return decode(Files.readAllBytes(baselineFile));
+        } catch (IOException e) {
+            logger.warn("Could not load visual baseline: {}", baselineFile, e);
+            return null;
+        }
+    }
+
+    private static byte[] encode(int width, int height, int[] pixels) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        System.arraycopy(pixels, 0, ((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0, pixels.length);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Shared state of one comparison; tiles write disjoint regions of the mask,
+     * leaving matching pixels transparent
+     */
+    private static final class TileComparison {
+        private final DecodedImage baseline;
+        private final DecodedImage actual;
+        private final int[] mask;
+        private final int tolerance;
+        private final boolean antiAliasing;
+        private final long maxDiffPixels;
+        private final AtomicLong differentPixels = new AtomicLong();
+        private volatile boolean aborted;
+
+        private TileComparison(DecodedImage baseline, DecodedImage actual, int[] mask,
+                               int tolerance, boolean antiAliasing, long maxDiffPixels) {
+            this.baseline = baseline;
+            this.actual = actual;
+            this.mask = mask;
+            this.tolerance = tolerance;
+            this.antiAliasing = antiAliasing;
+            this.maxDiffPixels = maxDiffPixels;
+        }
+
+        private void compareTile(int tileX, int tileY) {
+            if (aborted) {
+                return;
+            }
+            int width = actual.width();
+            int[] expected = baseline.pixels();
+            int[] observed = actual.pixels();
+            int startX = tileX * TILE_SIZE;
+            int endX = Math.min(startX + TILE_SIZE, width);
+            int startY = tileY * TILE_SIZE;
+            int endY = Math.min(startY + TILE_SIZE, actual.height());
+            long tileDiffs = 0;
+
+            for (int y = startY; y < endY; y++) {
+                int row = y * width;
+                for (int x = startX; x < endX; x++) {
+                    int index = row + x;
+                    int pixel = observed[index];
+                    if (!withinTolerance(expected[index], pixel)
+                            && !(antiAliasing && isAntiAliased(x, y, pixel, expected[index]))) {
+                        mask[index] = DIFF_COLOR;
+                        tileDiffs++;
+                    }
+                }
+            }
+
+            if (tileDiffs > 0 && differentPixels.addAndGet(tileDiffs) > maxDiffPixels) {
+                aborted = true;
+            }
+        }
+
+        private boolean withinTolerance(int expected, int observed) {
+            return Math.abs(((expected >> 16) & 0xFF) - ((observed >> 16) & 0xFF)) <= tolerance
+                && Math.abs(((expected >> 8) & 0xFF) - ((observed >> 8) & 0xFF)) <= tolerance
+                && Math.abs((expected & 0xFF) - (observed & 0xFF)) <= tolerance;
+        }
+
+        /**
+         * A pixel is treated as anti-aliasing noise when both colours appear among its neighbours in the other image
+         */
+        private boolean isAntiAliased(int x, int y, int observed, int expected) {
+            int width = actual.width();
+            int height = actual.height();
+            boolean observedNearby = false;
+            boolean expectedNearby = false;
+            for (int dy = -1; dy <= 1; dy++) {
+                int ny = y + dy;
+                if (ny < 0 || ny >= height) {
+                    continue;
+                }
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = x + dx;
+                    if ((dx == 0 && dy == 0) || nx < 0 || nx >= width) {
+                        continue;
+                    }
+                    int neighbour = ny * width + nx;
+                    observedNearby |= withinTolerance(baseline.pixels()[neighbour], observed);
+                    expectedNearby |= withinTolerance(actual.pixels()[neighbour], expected);
+                    if (observedNearby && expectedNearby) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Fork-join task splitting a range of tile indices
+     */
+    private static final class TileTask extends RecursiveAction {
+        private final TileComparison comparison;
+        private final int tilesX;
+        private final int from;
+        private final int to;
+
+        private TileTask(TileComparison comparison, int tilesX, int from, int to) {
+            this.comparison = comparison;
+            this.tilesX = tilesX;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (comparison.aborted) {
+                return;
+            }
+            if (to - from <= TILES_PER_TASK) {
+                for (int tile = from; tile < to; tile++) {
+                    comparison.compareTile(tile % tilesX, tile / tilesX);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(comparison, tilesX, from, middle),
+                      new TileTask(comparison, tilesX, middle, to));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.marvinmarzon.benchmarks;
+
+import dev.marvinmarzon.utils.VisualDiffEngine;
+import dev.marvinmarzon.utils.VisualDiffEngine.DecodedImage;
+import dev.marvinmarzon.utils.VisualDiffEngine.DiffResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visual diff of a 1920x1080 page screenshot with about 2000 changed pixels
+ * The tiled engine runs on the common fork-join pool, so compareAllCores scales with the host's
+ * cores while compareOneWorker pins the pool to a single worker; naiveGetRgb is the per-pixel
+ * BufferedImage loop the engine replaces.
+ *
+ * Usage: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="VisualDiff"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisualDiffBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+    private static final int CHANGED_PIXELS = 2000;
+
+    private DecodedImage baseline;
+    private DecodedImage actual;
+    private BufferedImage baselineImage;
+    private BufferedImage actualImage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int[] expected = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                // Flat background with text-like rows of noise, like a rendered page
+                expected[y * WIDTH + x] = (y / 24) % 2 == 0 && random.nextInt(4) == 0 ? random.nextInt(0x1000000) : 0xF5F7FA;
+            }
+        }
+        int[] observed = expected.clone();
+        for (int i = 0; i < CHANGED_PIXELS; i++) {
+            observed[random.nextInt(observed.length)] = 0xFF0000;
+        }
+        baseline = new DecodedImage(WIDTH, HEIGHT, expected);
+        actual = new DecodedImage(WIDTH, HEIGHT, observed);
+        baselineImage = toImage(expected);
+        actualImage = toImage(observed);
+    }
+
+    @Benchmark
+    public DiffResult compareAllCores() {
+        return VisualDiffEngine.compare("bench", baseline, actual, 16, true, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Djava.util.concurrent.ForkJoinPool.common.parallelism=1")
+    public DiffResult compareOneWorker() {
+        return VisualDiffEngine.compare("bench", baseline, actual, 16, true, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public DiffResult compareEarlyExit() {
+        return VisualDiffEngine.compare("bench", baseline, actual, 16, true, 100);
+    }
+
+    @Benchmark
+    public long naiveGetRgb() {
+        long different = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (baselineImage.getRGB(x, y) != actualImage.getRGB(x, y)) {
+                    different++;
+                }
+            }
+        }
+        return different;
+    }
+
+    private static BufferedImage toImage(int[] pixels) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, WIDTH, HEIGHT, pixels, 0, WIDTH);
+        return image;
+    }
+}
@@ -0,0 +1,291 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.utils.ArtifactArchive;
+import dev.marvinmarzon.utils.BrowserStateCache;
+import dev.marvinmarzon.utils.CachingProxy;
+import dev.marvinmarzon.utils.FixtureServer;
+import dev.marvinmarzon.utils.JfrRecording;
+import dev.marvinmarzon.utils.MetricsEndpoint;
+import dev.marvinmarzon.utils.RequestInterceptor;
+import dev.marvinmarzon.utils.ShardReportMerger;
+import dev.marvinmarzon.utils.SuiteMetrics;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Suite setup, scenario dispatch and teardown shared by the Cucumber-TestNG runners
+ * Each runner registers its report plugins in its own @CucumberOptions; Cucumber adds them to the
+ * features, glue and tags declared here.
+ */
+@CucumberOptions(
+    features = AbstractCucumberRunner.FEATURES_ROOT,
+    glue = {"dev.marvinmarzon.stepdefs"},
+    monochrome = true,
+    dryRun = false,
+    tags = "not @ignore"
+)
+public abstract class AbstractCucumberRunner extends AbstractTestNGCucumberTests {
+    
+    static final String FEATURES_ROOT = "src/test/resources/features";
+    private static final Logger logger = LoggerFactory.getLogger(AbstractCucumberRunner.class);
+    private static final String REPORT_DIR = "target/reports";
+    private static final String JSON_REPORT = REPORT_DIR + "/" + ShardReportMerger.JSON_REPORT;
+    private static volatile long suiteStartNanos;
+    private static volatile int dataProviderThreads = 1;
+
+    private final ScenarioPriorities priorities = new ScenarioPriorities();
+
+    @BeforeSuite(alwaysRun = true)
+    public void setUpSuite() {
+        logger.info("=== Starting Cucumber-TestNG Test Suite ===");
+        logger.info("Test execution started at: {}", java.time.LocalDateTime.now());
+        suiteStartNanos = System.nanoTime();
+        
+        // Log system information
+        logger.info("Java Version: {}", System.getProperty("java.version"));
+        logger.info("OS: {} {}", System.getProperty("os.name"), System.getProperty("os.version"));
+        logger.info("User: {}", System.getProperty("user.name"));
+        
+        // Log test configuration
+        logTestConfiguration();
+        
+        // Use the build-time glue index instead of classpath scanning when test.glue.index.enabled=true
+        GlueIndex.activate();
+        
+        // Serve live suite telemetry when test.metrics.enabled=true
+        MetricsEndpoint.start();
+        
+        // Record the suite with Java Flight Recorder when test.jfr.enabled=true
+        JfrRecording.start();
+        
+        // Initialize any suite-level resources if needed
+        logger.info("Suite setup completed successfully");
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        logger.info("=== Finishing Cucumber-TestNG Test Suite ===");
+        
+        try {
+            // Ensure all drivers are properly closed
+            EnterpriseWebDriverManager.quitAllDrivers();
+            logger.info("All WebDriver instances cleaned up");
+            
+            // Stop the local fixture server if a scenario used it
+            FixtureServer.stop();
+            
+            // Report what the shared caching proxy saved, then stop it
+            CachingProxy.logStatistics();
+            CachingProxy.stop();
+            
+            // Flush and close the artifact archive if screenshots were archived
+            ArtifactArchive.closeDefault();
+            
+            // Report how many feature parses the shared parse cache saved
+            CachingFeatureParser.logStatistics();
+            
+            // Report page loads saved by Background snapshots and redundant navigation skipping
+            BrowserStateCache.logStatistics();
+            
+            // Report blocked and stubbed third-party requests
+            RequestInterceptor.logStatistics();
+            
+            // Persist passing results for incremental runs
+            ScenarioResultCache.getInstance().save();
+            
+            // Persist pass/flaky/fail counters of retried runs
+            if (TestConfigManager.isRetryEnabled()) {
+                FlakinessStats.getInstance().save();
+            }
+            
+            // Feed this run's durations into the scheduling history; load test iterations include think time
+            if (!TestConfigManager.isLoadTestEnabled()) {
+                recordScenarioDurations();
+            }
+            
+            // Collect this shard's reports for the merge step
+            if (TestConfigManager.isShardMode()) {
+                collectShardReports();
+            }
+            
+            // Stop serving live telemetry
+            MetricsEndpoint.stop();
+            
+            // Write the flight recording to target/
+            JfrRecording.stop();
+            
+            // Log suite completion
+            logger.info("Test execution completed at: {}", java.time.LocalDateTime.now());
+            logger.info("Suite teardown completed successfully");
+            
+        } catch (Exception e) {
+            logger.error("Error during suite teardown", e);
+        }
+    }
+
+    /**
+     * Capture the data provider pool size used for parallel scenarios
+     */
+    @BeforeClass(alwaysRun = true)
+    public void captureWorkerCount(ITestContext context) {
+        dataProviderThreads = context.getSuite().getXmlSuite().getDataProviderThreadCount();
+    }
+
+    /**
+     * Enable parallel execution at scenario level
+     * Thread count is controlled by TestNG configuration or Maven properties
+     * Scenarios are handed out longest-first based on historical durations
+     * In shard mode only this shard's partition is returned
+     * Priority classes (e.g. @smoke) are dispatched before everything else
+     * In load test mode no scenario is returned; LoadTestRunner runs them instead
+     */
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        if (TestConfigManager.isLoadTestEnabled()) {
+            return new Object[0][];
+        }
+        Object[][] scenarios = ScenarioSharder.select(super.scenarios());
+        Object[][] ordered = priorities.order(ScenarioScheduler.schedule(scenarios, dataProviderThreads));
+        SuiteMetrics.PICKLES_QUEUED.add(ordered.length);
+        return ordered;
+    }
+
+    /**
+     * Run a scenario unless the result cache says it passed and nothing it depends on changed,
+     * or the early-exit policy cancelled its priority class; failures are retried when test.retry.enabled=true
+     */
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios",
+          retryAnalyzer = ScenarioRetrier.class)
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        SuiteMetrics.PICKLES_QUEUED.decrement();
+        ScenarioResultCache cache = ScenarioResultCache.getInstance();
+        Pickle pickle = pickleWrapper.getPickle();
+        if (priorities.isCancelled(pickle)) {
+            throw new SkipException(ScenarioPriorities.cancelMessage(pickle));
+        }
+        if (cache.isCachedPass(pickle)) {
+            priorities.recordOutcome(pickle, false);
+            throw new SkipException(ScenarioResultCache.skipMessage(pickle));
+        }
+
+        try {
+            ScenarioRetrier.runAttempt(pickle, () -> super.runScenario(pickleWrapper, featureWrapper));
+        } catch (SkipException e) {
+            cache.record(pickle, false);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            cache.record(pickle, false);
+            // A failure the retry analyzer will re-run is not final; its last attempt reports the outcome
+            if (!ScenarioRetrier.willRetry(pickle) && recordFinalOutcome(pickle, true)) {
+                throw new SkipException(ScenarioRetrier.quarantineMessage(pickle));
+            }
+            throw e;
+        }
+        cache.record(pickle, true);
+        recordFinalOutcome(pickle, false);
+    }
+
+    /**
+     * Feed a scenario's final outcome to the priority classes and the flakiness statistics
+     *
+     * @return true when a failed scenario is quarantined and should not fail the build
+     */
+    private boolean recordFinalOutcome(Pickle pickle, boolean failed) {
+        priorities.recordOutcome(pickle, failed);
+        return ScenarioRetrier.recordFinalOutcome(pickle, failed);
+    }
+
+    /**
+     * Every scenario selected by the Cucumber options, before sharding, scheduling and priorities
+     */
+    protected Object[][] allScenarios() {
+        return super.scenarios();
+    }
+
+    /**
+     * Run one scenario through Cucumber, bypassing the result cache, retries and priorities
+     */
+    protected void runCucumberScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        super.runScenario(pickleWrapper, featureWrapper);
+    }
+
+    /**
+     * Ingest the finished run's JSON report into the duration history and log actual utilization
+     */
+    private void recordScenarioDurations() {
+        Map<String, Double> observed = ScenarioDurationHistory.getInstance().ingestReport(Paths.get(JSON_REPORT));
+        double busySeconds = observed.values().stream().mapToDouble(Double::doubleValue).sum();
+        double wallSeconds = (System.nanoTime() - suiteStartNanos) / 1_000_000_000.0;
+        ScenarioScheduler.logActualUtilization(busySeconds, wallSeconds, dataProviderThreads);
+    }
+
+    /**
+     * Copy this shard's JSON, JUnit and Allure outputs to target/shard-reports/shard-N
+     * so CI can collect uniquely named folders and merge them with ShardReportMerger
+     */
+    private void collectShardReports() {
+        Path shardDir = Paths.get("target", "shard-reports", "shard-" + TestConfigManager.getShardIndex());
+        try {
+            Files.createDirectories(shardDir);
+            for (String report : List.of(ShardReportMerger.JSON_REPORT, ShardReportMerger.JUNIT_REPORT)) {
+                Path source = Paths.get(REPORT_DIR, report);
+                if (Files.exists(source)) {
+                    Files.copy(source, shardDir.resolve(report), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            Path allureResults = Paths.get(System.getProperty("allure.results.directory", ShardReportMerger.ALLURE_RESULTS));
+            if (Files.isDirectory(allureResults)) {
+                Path target = Files.createDirectories(shardDir.resolve(ShardReportMerger.ALLURE_RESULTS));
+                try (Stream<Path> files = Files.list(allureResults)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+            logger.info("Shard reports collected in: {}", shardDir.toAbsolutePath());
+        } catch (Exception e) {
+            logger.error("Failed to collect shard reports", e);
+        }
+    }
+
+    /**
+     * Log test configuration for debugging
+     */
+    private void logTestConfiguration() {
+        logger.info("Test Configuration:");
+        logger.info("  Browser: {}", System.getProperty("test.browser", "chrome"));
+        logger.info("  Headless: {}", System.getProperty("test.headless", "false"));
+        logger.info("  Environment: {}", System.getProperty("test.environment", "local"));
+        logger.info("  Thread Count: {}", System.getProperty("test.thread.count", "1"));
+        logger.info("  Remote Execution: {}", System.getProperty("test.remote", "false"));
+        
+        if ("true".equals(System.getProperty("test.remote"))) {
+            logger.info("  Grid URL: {}", System.getProperty("test.grid.url", "http://localhost:4444/wd/hub"));
+        }
+    }
+}
\ No newline at end of file
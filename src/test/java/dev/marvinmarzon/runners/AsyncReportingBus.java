@@ -0,0 +1,289 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.core.options.PluginOption;
+import io.cucumber.core.plugin.Options;
+import io.cucumber.core.plugin.PluginFactory;
+import io.cucumber.core.plugin.Plugins;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.Event;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous fan-out of Cucumber events to the report plugins
+ * Cucumber delivers events to plugins on the scenario threads, under the event bus lock. In
+ * AsyncReportingRunner this plugin is the only one registered with Cucumber: it hands every event to
+ * one lane per report plugin (configured in test.reporting.plugins), and each lane's plugin consumes
+ * its events in batches on a dedicated thread. The lanes are built with Cucumber's internal plugin
+ * classes, so the bus only runs when test.reporting.async.enabled=true. Plugins that depend on the
+ * emitting thread (Allure's thread-bound lifecycle, the timeline's per-thread lanes) stay synchronous.
+ * With timing enabled the cost of every plugin per event type is logged at the end of the run.
+ */
+public final class AsyncReportingBus implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncReportingBus.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final List<Lane> lanes = new ArrayList<>();
+    private final LongAdder publishNanos = new LongAdder();
+    private final LongAdder published = new LongAdder();
+    private final AtomicInteger runFinishedSignals = new AtomicInteger();
+
+    public AsyncReportingBus() {
+        if (!TestConfigManager.isReportingAsyncEnabled()) {
+            throw new IllegalStateException(
+                "AsyncReportingBus needs test.reporting.async.enabled=true; run it with mvn test -Pasync-reporting");
+        }
+        List<String> syncPlugins = split(TestConfigManager.getReportingSyncPlugins());
+        PluginFactory pluginFactory = new PluginFactory();
+        for (String pluginSpec : split(TestConfigManager.getReportingPlugins())) {
+            PluginOption option = PluginOption.parse(pluginSpec);
+            boolean laneAsync = syncPlugins.stream().noneMatch(pluginSpec::startsWith);
+            Lane lane = new Lane(laneName(option), laneAsync);
+            new Plugins(pluginFactory, new SinglePluginOptions(option)).setSerialEventBusOnEventListenerPlugins(lane);
+            lanes.add(lane);
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        // Cucumber publishes Event subtypes and message Envelopes; each arrives here exactly once
+        publisher.registerHandlerFor(Event.class, this::publish);
+        publisher.registerHandlerFor(Envelope.class, this::publish);
+        lanes.forEach(Lane::start);
+    }
+
+    private void publish(Object event) {
+        long start = System.nanoTime();
+        for (Lane lane : lanes) {
+            lane.offer(event);
+        }
+        publishNanos.add(System.nanoTime() - start);
+        published.increment();
+        // The run ends with a TestRunFinished event and a TestRunFinished envelope; wait for both
+        if ((event instanceof TestRunFinished || event instanceof Envelope envelope && envelope.getTestRunFinished().isPresent())
+                && runFinishedSignals.incrementAndGet() == 2) {
+            finish();
+        }
+    }
+
+    /**
+     * Reports must be complete when the runner returns, so wait for every lane to drain
+     */
+    private void finish() {
+        lanes.forEach(Lane::stop);
+        if (TestConfigManager.isReportingTimingEnabled()) {
+            logTimings();
+        }
+        for (Lane lane : lanes) {
+            if (lane.failure != null) {
+                throw new IllegalStateException("Report plugin '" + lane.name + "' failed", lane.failure);
+            }
+        }
+    }
+
+    private void logTimings() {
+        logger.info("Report plugins: {} events cost {} ms on the publishing threads", published.sum(),
+                   format(publishNanos.sum() / 1e6));
+        logger.info("Report plugin cost per event:");
+        for (Lane lane : lanes) {
+            long events = lane.events.values().stream().mapToLong(LongAdder::sum).sum();
+            long nanos = lane.nanos.values().stream().mapToLong(LongAdder::sum).sum();
+            logger.info("  {} ({}): {} events, {} ms total{}", lane.name, lane.async ? "async" : "sync",
+                       events, format(nanos / 1e6),
+                       lane.async ? ", " + lane.batches.get() + " batches, max queue " + lane.maxDepth.get() : "");
+            new TreeMap<>(lane.nanos).forEach((type, typeNanos) -> {
+                long count = lane.events.get(type).sum();
+                logger.info("    {}: {} x {} µs", type, count, format(typeNanos.sum() / 1e3 / Math.max(1, count)));
+            });
+        }
+    }
+
+    private static String laneName(PluginOption option) {
+        String name = option.pluginString();
+        int colon = name.indexOf(':');
+        name = colon > 1 ? name.substring(0, colon) : name;
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(part -> !part.isEmpty()).toList();
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+
+    /**
+     * Event publisher of one report plugin, fed through a bounded lock-free queue
+     * The queue is bounded by a counter: a full lane makes the publishing thread back off until the
+     * consumer catches up, so no report event is ever dropped.
+     */
+    private static final class Lane implements EventPublisher {
+        private final String name;
+        private final boolean async;
+        private final Map<Class<?>, List<EventHandler<Object>>> handlers = new HashMap<>();
+        private final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private final AtomicLong batches = new AtomicLong();
+        private final Map<String, LongAdder> events = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> nanos = new ConcurrentHashMap<>();
+        private final int capacity = Math.max(1, TestConfigManager.getReportingQueueCapacity());
+        private final int batchSize = Math.max(1, TestConfigManager.getReportingBatchSize());
+        private final boolean timing = TestConfigManager.isReportingTimingEnabled();
+        private volatile boolean running;
+        private volatile Throwable failure;
+        private Thread consumer;
+
+        Lane(String name, boolean async) {
+            this.name = name;
+            this.async = async;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            handlers.computeIfAbsent(eventType, type -> new ArrayList<>()).add((EventHandler<Object>) handler);
+        }
+
+        @Override
+        public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+            List<EventHandler<Object>> registered = handlers.get(eventType);
+            if (registered != null) {
+                registered.remove(handler);
+            }
+        }
+
+        void start() {
+            if (!async) {
+                return;
+            }
+            running = true;
+            consumer = new Thread(this::consume, "report-" + name);
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+
+        void offer(Object event) {
+            if (!wants(event)) {
+                return;
+            }
+            if (!async) {
+                dispatch(event);
+                return;
+            }
+            // Back-pressure: wait for room rather than drop events
+            while (depth.get() >= capacity && consumer.isAlive()) {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+            queue.offer(event);
+            maxDepth.accumulateAndGet(depth.incrementAndGet(), Math::max);
+        }
+
+        void stop() {
+            if (!async) {
+                return;
+            }
+            running = false;
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void consume() {
+            while (true) {
+                int drained = 0;
+                for (Object event; drained < batchSize && (event = queue.poll()) != null; drained++) {
+                    dispatch(event);
+                }
+                if (drained > 0) {
+                    depth.addAndGet(-drained);
+                    batches.incrementAndGet();
+                } else if (!running && queue.isEmpty()) {
+                    return;
+                } else {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        private boolean wants(Object event) {
+            return (event instanceof Event && handlers.containsKey(Event.class)) || handlers.containsKey(event.getClass());
+        }
+
+        private void dispatch(Object event) {
+            long start = timing ? System.nanoTime() : 0;
+            try {
+                if (event instanceof Event) {
+                    deliver(handlers.get(Event.class), event);
+                }
+                deliver(handlers.get(event.getClass()), event);
+            } catch (RuntimeException | Error e) {
+                if (!async) {
+                    throw e;
+                }
+                // A failing plugin must not stop the lane; the first failure is rethrown at the end of the run
+                logger.error("Report plugin '{}' failed on {}", name, event.getClass().getSimpleName(), e);
+                failure = failure != null ? failure : e;
+            }
+            if (timing) {
+                String type = event.getClass().getSimpleName();
+                events.computeIfAbsent(type, key -> new LongAdder()).increment();
+                nanos.computeIfAbsent(type, key -> new LongAdder()).add(System.nanoTime() - start);
+            }
+        }
+
+        private static void deliver(List<EventHandler<Object>> eventHandlers, Object event) {
+            if (eventHandlers != null) {
+                for (EventHandler<Object> handler : eventHandlers) {
+                    handler.receive(event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Options holding a single plugin, so each plugin gets its own lane
+     */
+    private record SinglePluginOptions(PluginOption plugin) implements Options {
+        @Override
+        public Iterable<Plugin> plugins() {
+            return List.of(plugin);
+        }
+
+        @Override
+        public boolean isMonochrome() {
+            // Same as the runner's @CucumberOptions(monochrome = true)
+            return true;
+        }
+
+        @Override
+        public boolean isWip() {
+            return false;
+        }
+    }
+}
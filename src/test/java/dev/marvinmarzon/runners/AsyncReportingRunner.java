@@ -0,0 +1,12 @@
+package dev.marvinmarzon.runners;
+
+import io.cucumber.testng.CucumberOptions;
+
+/**
+ * Runner with asynchronous report plugins, selected by async-reporting-suite.xml (mvn test -Pasync-reporting)
+ * Registers AsyncReportingBus as its only Cucumber plugin; the bus creates the plugins listed in
+ * test.reporting.plugins and feeds each from its own queue. Needs test.reporting.async.enabled=true.
+ */
+@CucumberOptions(plugin = {"dev.marvinmarzon.runners.AsyncReportingBus"})
+public class AsyncReportingRunner extends AbstractCucumberRunner {
+}
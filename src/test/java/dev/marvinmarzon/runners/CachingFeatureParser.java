@@ -0,0 +1,67 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.gherkin.FeatureParser;
+import io.cucumber.core.gherkin.messages.GherkinMessagesFeatureParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * JVM-wide parse-once cache in front of Cucumber's Gherkin parser
+ * Every {@code <test>} block of a suite creates its own Cucumber runner, which re-reads and
+ * re-parses all feature files before filtering by tags. Parsed features (with their compiled
+ * pickles) are immutable, so later runners reuse them as long as the file content is unchanged.
+ *
+ * Registered through META-INF/services; Cucumber picks the parser with the highest major version.
+ */
+public final class CachingFeatureParser implements FeatureParser {
+    private static final Logger logger = LoggerFactory.getLogger(CachingFeatureParser.class);
+
+    private record CachedFeature(String source, Optional<Feature> feature) {
+    }
+
+    private static final Map<URI, CachedFeature> cache = new ConcurrentHashMap<>();
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicInteger misses = new AtomicInteger();
+
+    private final FeatureParser delegate = new GherkinMessagesFeatureParser();
+
+    @Override
+    public Optional<Feature> parse(URI path, String source, Supplier<UUID> idGenerator) {
+        if (!TestConfigManager.isFeatureCacheEnabled()) {
+            return delegate.parse(path, source, idGenerator);
+        }
+
+        CachedFeature cached = cache.get(path);
+        if (cached != null && cached.source().equals(source)) {
+            hits.incrementAndGet();
+            return cached.feature();
+        }
+
+        misses.incrementAndGet();
+        Optional<Feature> feature = delegate.parse(path, source, idGenerator);
+        cache.put(path, new CachedFeature(source, feature));
+        return feature;
+    }
+
+    @Override
+    public String version() {
+        // Must sort above the delegate's version ("8") to be selected
+        return "9";
+    }
+
+    public static void logStatistics() {
+        if (hits.get() + misses.get() > 0) {
+            logger.info("Feature parse cache: {} parsed, {} reused", misses.get(), hits.get());
+        }
+    }
+}
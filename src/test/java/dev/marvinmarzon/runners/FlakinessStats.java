@@ -0,0 +1,126 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.utils.TestConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persisted per-scenario outcome counters used to detect chronically flaky scenarios
+ * A run is "flaky" when the scenario failed first and passed on a retry.
+ * Quarantine decisions use the history as loaded at startup, so they are stable within a run.
+ */
+public class FlakinessStats {
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessStats.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static volatile FlakinessStats instance;
+
+    /**
+     * Outcome counters of one scenario across runs
+     */
+    public record Stats(int runs, int flaky, int failed) {
+        Stats add(Stats other) {
+            return new Stats(runs + other.runs, flaky + other.flaky, failed + other.failed);
+        }
+
+        double flakeRate() {
+            return runs == 0 ? 0 : (double) flaky / runs;
+        }
+    }
+
+    private final Path statsFile;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Set<String> chronicallyFlaky;
+
+    private FlakinessStats(Path statsFile) {
+        this.statsFile = statsFile;
+        load();
+        this.chronicallyFlaky = stats.entrySet().stream()
+            .filter(entry -> entry.getValue().runs() >= TestConfigManager.getRetryQuarantineMinRuns()
+                          && entry.getValue().flakeRate() >= TestConfigManager.getRetryQuarantineThreshold())
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toUnmodifiableSet());
+        if (!chronicallyFlaky.isEmpty()) {
+            logger.info("Chronically flaky scenarios: {}", new TreeSet<>(chronicallyFlaky));
+        }
+    }
+
+    /**
+     * Shared statistics, loaded once per JVM for all runner instances
+     */
+    public static FlakinessStats getInstance() {
+        FlakinessStats flakinessStats = instance;
+        if (flakinessStats == null) {
+            synchronized (FlakinessStats.class) {
+                flakinessStats = instance;
+                if (flakinessStats == null) {
+                    flakinessStats = new FlakinessStats(Paths.get(TestConfigManager.getRetryStatsPath()));
+                    instance = flakinessStats;
+                }
+            }
+        }
+        return flakinessStats;
+    }
+
+    public void recordPassed(String key) {
+        stats.merge(key, new Stats(1, 0, 0), Stats::add);
+    }
+
+    public void recordFlaky(String key) {
+        stats.merge(key, new Stats(1, 1, 0), Stats::add);
+    }
+
+    public void recordFailed(String key) {
+        stats.merge(key, new Stats(1, 0, 1), Stats::add);
+    }
+
+    /**
+     * Flake rate at or above the quarantine threshold over enough runs
+     */
+    public boolean isChronicallyFlaky(String key) {
+        return chronicallyFlaky.contains(key);
+    }
+
+    /**
+     * Failures of quarantined scenarios are reported but do not fail the build
+     */
+    public boolean isQuarantined(String key) {
+        return TestConfigManager.isRetryQuarantineEnabled() && isChronicallyFlaky(key);
+    }
+
+    public synchronized void save() {
+        try {
+            if (statsFile.getParent() != null) {
+                Files.createDirectories(statsFile.getParent());
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(statsFile.toFile(), new TreeMap<>(stats));
+        } catch (IOException e) {
+            logger.warn("Could not save flakiness statistics: {}", statsFile, e);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(statsFile)) {
+            return;
+        }
+        try {
+            stats.putAll(MAPPER.readValue(statsFile.toFile(), new TypeReference<Map<String, Stats>>() { }));
+            logger.debug("Loaded flakiness statistics of {} scenarios from: {}", stats.size(), statsFile);
+        } catch (IOException e) {
+            logger.warn("Could not load flakiness statistics: {}", statsFile, e);
+        }
+    }
+}
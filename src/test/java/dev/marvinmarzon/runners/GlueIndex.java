@@ -0,0 +1,126 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.GlueIndexProcessor;
+import dev.marvinmarzon.utils.TestConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Build-time index of step definitions, hooks and parameter types written by {@link GlueIndexProcessor}
+ * When active, Cucumber's glue is pointed at an empty marker package so the Java backend scans nothing,
+ * and {@link IndexedGlueBackend} registers the indexed glue instead.
+ */
+public final class GlueIndex {
+    private static final Logger logger = LoggerFactory.getLogger(GlueIndex.class);
+
+    /**
+     * Glue package that contains no classes; its presence in the glue path selects the index
+     */
+    public static final String MARKER_PACKAGE = "dev.marvinmarzon.runners.indexedglue";
+    public static final String MARKER_URI = "classpath:/" + MARKER_PACKAGE.replace('.', '/');
+
+    private static final String GLUE_PROPERTY = "cucumber.glue";
+    private static final String GLUE_ENV = "CUCUMBER_GLUE";
+
+    private static volatile List<Entry> entries;
+
+    /**
+     * One index line: kind ("step", "hook", "parametertype"), the declaring method and the
+     * kind-specific attributes that follow it
+     */
+    public record Entry(String kind, String hookKind, String className, String methodName,
+                        List<String> parameterTypes, List<String> attributes) {
+    }
+
+    private GlueIndex() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Point Cucumber at the index unless it is disabled, missing, or the glue was set explicitly
+     * Must run before the Cucumber runner is created, e.g. in a @BeforeSuite method.
+     */
+    public static void activate() {
+        if (!TestConfigManager.isGlueIndexEnabled()) {
+            return;
+        }
+        if (System.getProperty(GLUE_PROPERTY) != null || System.getenv(GLUE_ENV) != null) {
+            logger.info("Glue set explicitly, glue index not used");
+            return;
+        }
+        List<Entry> indexed = entries();
+        if (indexed.isEmpty()) {
+            logger.info("No glue index on the classpath, Cucumber scans the glue packages");
+            return;
+        }
+        if (!IndexedGlueBackend.supports(indexed)) {
+            logger.info("Glue index has Scenario hooks this cucumber-java version cannot serve, Cucumber scans the glue packages");
+            return;
+        }
+        System.setProperty(GLUE_PROPERTY, MARKER_PACKAGE);
+        logger.info("Glue index active: {} step definitions, hooks and parameter types", indexed.size());
+    }
+
+    /**
+     * Whether Cucumber was pointed at the index by {@link #activate()}
+     */
+    public static boolean isActive() {
+        return MARKER_PACKAGE.equals(System.getProperty(GLUE_PROPERTY));
+    }
+
+    /**
+     * Indexed glue, read once per JVM; empty when there is no usable index
+     */
+    public static List<Entry> entries() {
+        List<Entry> loaded = entries;
+        if (loaded == null) {
+            synchronized (GlueIndex.class) {
+                loaded = entries;
+                if (loaded == null) {
+                    loaded = load();
+                    entries = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private static List<Entry> load() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (InputStream stream = classLoader.getResourceAsStream(GlueIndexProcessor.INDEX_RESOURCE)) {
+            if (stream == null) {
+                return List.of();
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            List<Entry> loaded = new ArrayList<>();
+            for (String line; (line = reader.readLine()) != null; ) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    loaded.add(parse(line));
+                }
+            }
+            return List.copyOf(loaded);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read glue index, Cucumber scans the glue packages", e);
+            return List.of();
+        }
+    }
+
+    private static Entry parse(String line) {
+        List<String> fields = Arrays.stream(line.split("\t", -1)).map(GlueIndexProcessor::unescape).toList();
+        int offset = "hook".equals(fields.get(0)) ? 2 : 1;
+        String parameterTypes = fields.get(offset + 2);
+        return new Entry(fields.get(0), offset == 2 ? fields.get(1) : null,
+                         fields.get(offset), fields.get(offset + 1),
+                         parameterTypes.isEmpty() ? List.of() : List.of(parameterTypes.split(",")),
+                         fields.subList(offset + 3, fields.size()));
+    }
+}
@@ -0,0 +1,318 @@
+package dev.marvinmarzon.runners;
+
+import io.cucumber.core.backend.Backend;
+import io.cucumber.core.backend.Container;
+import io.cucumber.core.backend.CucumberBackendException;
+import io.cucumber.core.backend.CucumberInvocationTargetException;
+import io.cucumber.core.backend.Glue;
+import io.cucumber.core.backend.HookDefinition;
+import io.cucumber.core.backend.Located;
+import io.cucumber.core.backend.Lookup;
+import io.cucumber.core.backend.ParameterInfo;
+import io.cucumber.core.backend.ParameterTypeDefinition;
+import io.cucumber.core.backend.Snippet;
+import io.cucumber.core.backend.SourceReference;
+import io.cucumber.core.backend.StepDefinition;
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.core.backend.TypeResolver;
+import io.cucumber.cucumberexpressions.CaptureGroupTransformer;
+import io.cucumber.cucumberexpressions.ParameterType;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.Transpose;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cucumber backend that registers glue from the build-time {@link GlueIndex} instead of scanning
+ * Only active when the glue path contains {@link GlueIndex#MARKER_URI}. Classes and methods are
+ * resolved by name, without walking packages or reflecting over every method of every glue class.
+ * Snippets for undefined steps are still produced by the regular Java backend.
+ * Hooks taking a {@link Scenario} need cucumber-java's package-private Scenario constructor; when it
+ * cannot be looked up, {@link #supports(List)} is false and Cucumber scans the glue packages instead.
+ */
+public class IndexedGlueBackend implements Backend {
+    private static final Logger logger = LoggerFactory.getLogger(IndexedGlueBackend.class);
+
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+        "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+        "int", int.class, "long", long.class, "float", float.class, "double", double.class);
+
+    private final Lookup lookup;
+    private final Container container;
+    private final Supplier<ClassLoader> classLoaderSupplier;
+    private final Map<String, Class<?>> classes = new HashMap<>();
+
+    public IndexedGlueBackend(Lookup lookup, Container container, Supplier<ClassLoader> classLoaderSupplier) {
+        this.lookup = lookup;
+        this.container = container;
+        this.classLoaderSupplier = classLoaderSupplier;
+    }
+
+    /**
+     * Whether every indexed definition can be registered: hooks with a Scenario parameter need the
+     * reflective Scenario constructor, which is only looked up when such a hook exists
+     */
+    public static boolean supports(List<GlueIndex.Entry> entries) {
+        boolean needsScenario = entries.stream().anyMatch(entry -> "hook".equals(entry.kind())
+            && entry.parameterTypes().contains(Scenario.class.getName()));
+        return !needsScenario || ScenarioFactory.CONSTRUCTOR != null;
+    }
+
+    @Override
+    public void loadGlue(Glue glue, List<URI> gluePaths) {
+        if (gluePaths.stream().noneMatch(uri -> GlueIndex.MARKER_URI.equals(uri.toString()))) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<GlueIndex.Entry> entries = GlueIndex.entries();
+        for (GlueIndex.Entry entry : entries) {
+            Method method = resolve(entry);
+            container.addClass(method.getDeclaringClass());
+            switch (entry.kind()) {
+                case "step" -> glue.addStepDefinition(new IndexedStepDefinition(method, entry.attributes().get(0)));
+                case "hook" -> addHook(glue, entry, new IndexedHookDefinition(method,
+                    Integer.parseInt(entry.attributes().get(0)), entry.attributes().get(1)));
+                case "parametertype" -> glue.addParameterType(new IndexedParameterTypeDefinition(method, entry.attributes()));
+                default -> throw new CucumberBackendException("Unknown glue index entry: " + entry);
+            }
+        }
+        logger.debug("Loaded {} glue definitions from index in {} ms",
+                    entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void buildWorld() {
+        // Instances come from the shared object factory, which the Java backend starts and stops
+    }
+
+    @Override
+    public void disposeWorld() {
+        // See buildWorld
+    }
+
+    @Override
+    public Snippet getSnippet() {
+        // The Java backend provides snippets for undefined steps
+        return null;
+    }
+
+    private void addHook(Glue glue, GlueIndex.Entry entry, HookDefinition hook) {
+        switch (entry.hookKind()) {
+            case "before" -> glue.addBeforeHook(hook);
+            case "after" -> glue.addAfterHook(hook);
+            case "beforestep" -> glue.addBeforeStepHook(hook);
+            case "afterstep" -> glue.addAfterStepHook(hook);
+            default -> throw new CucumberBackendException("Unknown hook kind in glue index: " + entry);
+        }
+    }
+
+    private Method resolve(GlueIndex.Entry entry) {
+        try {
+            Class<?>[] parameterTypes = new Class<?>[entry.parameterTypes().size()];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = loadClass(entry.parameterTypes().get(i));
+            }
+            return loadClass(entry.className()).getDeclaredMethod(entry.methodName(), parameterTypes);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new CucumberBackendException("Glue index is out of date, rebuild the test classes: " + entry, e);
+        }
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        if (primitive != null) {
+            return primitive;
+        }
+        Class<?> loaded = classes.get(name);
+        if (loaded == null) {
+            loaded = Class.forName(name, false, classLoaderSupplier.get());
+            classes.put(name, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Shared invocation and location handling, matching the Java backend's formatting
+     */
+    private abstract class IndexedDefinition implements Located {
+        final Method method;
+
+        IndexedDefinition(Method method) {
+            this.method = method;
+        }
+
+        Object invoke(Object... args) {
+            Object target = Modifier.isStatic(method.getModifiers()) ? null : lookup.getInstance(method.getDeclaringClass());
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw new CucumberInvocationTargetException(this, e);
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                throw new CucumberBackendException("Failed to invoke " + getLocation(), e);
+            }
+        }
+
+        @Override
+        public boolean isDefinedAt(StackTraceElement element) {
+            return element.getClassName().equals(method.getDeclaringClass().getName())
+                && element.getMethodName().equals(method.getName());
+        }
+
+        @Override
+        public String getLocation() {
+            return method.getDeclaringClass().getName() + "." + method.getName() + "("
+                + String.join(",", Arrays.stream(method.getParameterTypes()).map(Class::getName).toList()) + ")";
+        }
+
+        @Override
+        public Optional<SourceReference> getSourceReference() {
+            return Optional.of(SourceReference.fromMethod(method));
+        }
+    }
+
+    private final class IndexedStepDefinition extends IndexedDefinition implements StepDefinition {
+        private final String expression;
+        private final List<ParameterInfo> parameterInfos;
+
+        IndexedStepDefinition(Method method, String expression) {
+            super(method);
+            this.expression = expression;
+            this.parameterInfos = new ArrayList<>();
+            Type[] types = method.getGenericParameterTypes();
+            Annotation[][] annotations = method.getParameterAnnotations();
+            for (int i = 0; i < types.length; i++) {
+                boolean transposed = Arrays.stream(annotations[i]).anyMatch(Transpose.class::isInstance);
+                parameterInfos.add(new IndexedParameterInfo(types[i], transposed));
+            }
+        }
+
+        @Override
+        public void execute(Object[] args) {
+            invoke(args);
+        }
+
+        @Override
+        public List<ParameterInfo> parameterInfos() {
+            return parameterInfos;
+        }
+
+        @Override
+        public String getPattern() {
+            return expression;
+        }
+    }
+
+    private record IndexedParameterInfo(Type type, boolean transposed) implements ParameterInfo {
+        @Override
+        public Type getType() {
+            return type;
+        }
+
+        @Override
+        public boolean isTransposed() {
+            return transposed;
+        }
+
+        @Override
+        public TypeResolver getTypeResolver() {
+            return () -> type;
+        }
+    }
+
+    private final class IndexedHookDefinition extends IndexedDefinition implements HookDefinition {
+        private final int order;
+        private final String tagExpression;
+
+        IndexedHookDefinition(Method method, int order, String tagExpression) {
+            super(method);
+            this.order = order;
+            this.tagExpression = tagExpression;
+        }
+
+        @Override
+        public void execute(TestCaseState state) {
+            if (method.getParameterCount() == 0) {
+                invoke();
+            } else {
+                invoke(newScenario(state));
+            }
+        }
+
+        @Override
+        public String getTagExpression() {
+            return tagExpression;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+
+    private final class IndexedParameterTypeDefinition extends IndexedDefinition implements ParameterTypeDefinition {
+        private final ParameterType<Object> parameterType;
+
+        IndexedParameterTypeDefinition(Method method, List<String> attributes) {
+            super(method);
+            String name = attributes.get(0).isEmpty() ? method.getName() : attributes.get(0);
+            boolean varargs = method.getParameterCount() == 1 && method.getParameterTypes()[0].isArray();
+            this.parameterType = new ParameterType<>(name, List.of(attributes.get(1)),
+                method.getGenericReturnType(),
+                (CaptureGroupTransformer<Object>) args -> varargs ? invoke((Object) args) : invoke(args),
+                Boolean.parseBoolean(attributes.get(2)),
+                Boolean.parseBoolean(attributes.get(3)),
+                Boolean.parseBoolean(attributes.get(4)));
+        }
+
+        @Override
+        public ParameterType<?> parameterType() {
+            return parameterType;
+        }
+    }
+
+    private static Scenario newScenario(TestCaseState state) {
+        if (ScenarioFactory.CONSTRUCTOR == null) {
+            throw new CucumberBackendException("Scenario hooks are not supported by the glue index on this cucumber-java version");
+        }
+        try {
+            return ScenarioFactory.CONSTRUCTOR.newInstance(state);
+        } catch (ReflectiveOperationException e) {
+            throw new CucumberBackendException("Could not create Scenario for hook", e);
+        }
+    }
+
+    /**
+     * The Java backend's Scenario wrapper only has a package-private constructor; null when it is
+     * missing or not accessible (e.g. a newer cucumber-java or a module-path setup)
+     */
+    private static final class ScenarioFactory {
+        static final Constructor<Scenario> CONSTRUCTOR = lookup();
+
+        private static Constructor<Scenario> lookup() {
+            try {
+                Constructor<Scenario> constructor = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+                constructor.setAccessible(true);
+                return constructor;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                logger.warn("cucumber-java Scenario constructor not accessible: {}", e.toString());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package dev.marvinmarzon.runners;
+
+import io.cucumber.core.backend.Backend;
+import io.cucumber.core.backend.BackendProviderService;
+import io.cucumber.core.backend.Container;
+import io.cucumber.core.backend.Lookup;
+
+import java.util.function.Supplier;
+
+/**
+ * Registers {@link IndexedGlueBackend} with Cucumber through META-INF/services
+ */
+public final class IndexedGlueBackendProviderService implements BackendProviderService {
+
+    @Override
+    public Backend create(Lookup lookup, Container container, Supplier<ClassLoader> classLoader) {
+        return new IndexedGlueBackend(lookup, container, classLoader);
+    }
+}
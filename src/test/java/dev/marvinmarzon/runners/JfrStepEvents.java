@@ -0,0 +1,48 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.JfrEvents;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Emits a {@link JfrEvents.Step} event per Gherkin step
+ * JFR times an event on the thread that begins and commits it, so this plugin must receive step
+ * events on the scenario thread: it is listed in test.reporting.sync.plugins.
+ *
+ * Usage: dev.marvinmarzon.runners.JfrStepEvents
+ */
+public final class JfrStepEvents implements ConcurrentEventListener {
+    private static final ThreadLocal<JfrEvents.Step> currentStep = new ThreadLocal<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+    }
+
+    private void onStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            JfrEvents.Step step = new JfrEvents.Step();
+            step.begin();
+            currentStep.set(step);
+        }
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        JfrEvents.Step step = currentStep.get();
+        if (step == null || !(event.getTestStep() instanceof PickleStepTestStep pickleStep)) {
+            return;
+        }
+        currentStep.remove();
+        if (step.shouldCommit()) {
+            step.scenario = event.getTestCase().getName();
+            step.step = pickleStep.getStep().getKeyword() + pickleStep.getStep().getText();
+            step.pattern = pickleStep.getPattern();
+            step.status = event.getResult().getStatus().name();
+            step.commit();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.runners.StepLatencyProfile.PatternProfile;
+import dev.marvinmarzon.runners.StepLatencyProfile.Profile;
+import dev.marvinmarzon.runners.StepLatencyProfile.Sample;
+import dev.marvinmarzon.utils.TestConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a step latency profile with the stored baseline and fails on p95 regressions
+ * A pattern regresses when its p95 grew by more than the relative threshold and by at least the
+ * absolute floor, with enough samples on both sides. Every regression is written to a report that
+ * attributes it: the distribution shift (whole distribution vs tail only), the glue method and the
+ * slowest occurrences with their scenarios.
+ */
+public final class LatencyRegressionGate {
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRegressionGate.class);
+
+    // Set when this JVM refreshed the baseline, so later runners extend it instead of gating
+    private static volatile boolean baselineOwned;
+
+    /**
+     * One regressed step pattern
+     */
+    public record Regression(String pattern, PatternProfile baseline, PatternProfile current) {
+        double p95Change() {
+            return change(baseline.p95Ms(), current.p95Ms());
+        }
+
+        double p50Change() {
+            return change(baseline.p50Ms(), current.p50Ms());
+        }
+    }
+
+    private LatencyRegressionGate() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Write the profile, then refresh or check the baseline
+     * The baseline is only written on an explicit update, never seeded from an unchecked run.
+     * @throws IllegalStateException when the gate is enabled and the baseline is missing or any pattern regressed
+     */
+    public static synchronized void evaluate(Profile profile) {
+        Path profileFile = Paths.get(TestConfigManager.getLatencyProfilePath());
+        Path baselineFile = Paths.get(TestConfigManager.getLatencyBaselinePath());
+        Path reportFile = profileFile.resolveSibling("step-latency-regressions.md");
+        StepLatencyProfile.write(profile, profileFile);
+        logger.info("Step latency profile of {} step patterns written to: {}", profile.steps().size(), profileFile);
+
+        if (baselineOwned || TestConfigManager.isLatencyBaselineUpdate()) {
+            if (!baselineOwned) {
+                logger.info("{} step latency baseline: {}", Files.exists(baselineFile) ? "Updating" : "Creating",
+                           baselineFile);
+            }
+            baselineOwned = true;
+            StepLatencyProfile.write(profile, baselineFile);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            if (TestConfigManager.isLatencyGateEnabled()) {
+                throw new IllegalStateException("Step latency gate enabled but no baseline at "
+                    + baselineFile.toAbsolutePath() + "; record one with -Dtest.latency.baseline.update=true and "
+                    + "commit it, or point test.latency.baseline.path at an existing baseline");
+            }
+            logger.info("No step latency baseline at {}, comparison skipped", baselineFile);
+            return;
+        }
+
+        Profile baseline;
+        try {
+            baseline = StepLatencyProfile.read(baselineFile);
+        } catch (IOException e) {
+            logger.warn("Could not read step latency baseline, latency gate skipped: {}", baselineFile, e);
+            return;
+        }
+
+        List<Regression> regressions = compare(baseline, profile);
+        writeReport(reportFile, baselineFile, regressions);
+        if (regressions.isEmpty()) {
+            logger.info("Step latency gate passed against baseline: {}", baselineFile);
+            return;
+        }
+        for (Regression regression : regressions) {
+            logger.error("Step latency regression: '{}' p95 {} ms -> {} ms ({})", regression.pattern(),
+                        regression.baseline().p95Ms(), regression.current().p95Ms(), percent(regression.p95Change()));
+        }
+        if (TestConfigManager.isLatencyGateEnabled()) {
+            throw new IllegalStateException(regressions.size() + " step pattern(s) regressed beyond "
+                + percent(TestConfigManager.getLatencyGateThreshold()) + " p95, see " + reportFile.toAbsolutePath());
+        }
+    }
+
+    static List<Regression> compare(Profile baseline, Profile current) {
+        double threshold = TestConfigManager.getLatencyGateThreshold();
+        double minDeltaMs = TestConfigManager.getLatencyGateMinDeltaMs();
+        long minSamples = TestConfigManager.getLatencyGateMinSamples();
+
+        List<Regression> regressions = new ArrayList<>();
+        for (Map.Entry<String, PatternProfile> entry : current.steps().entrySet()) {
+            PatternProfile before = baseline.steps().get(entry.getKey());
+            PatternProfile after = entry.getValue();
+            if (before == null || before.count() < minSamples || after.count() < minSamples) {
+                continue;
+            }
+            if (after.p95Ms() > before.p95Ms() * (1 + threshold) && after.p95Ms() - before.p95Ms() >= minDeltaMs) {
+                regressions.add(new Regression(entry.getKey(), before, after));
+            }
+        }
+        regressions.sort((left, right) -> Double.compare(right.p95Change(), left.p95Change()));
+        return regressions;
+    }
+
+    private static void writeReport(Path reportFile, Path baselineFile, List<Regression> regressions) {
+        StringBuilder report = new StringBuilder("# Step latency regressions\n\n");
+        report.append("Baseline: `").append(baselineFile).append("`, threshold: p95 ")
+              .append(percent(TestConfigManager.getLatencyGateThreshold())).append(" and at least ")
+              .append(TestConfigManager.getLatencyGateMinDeltaMs()).append(" ms\n\n");
+        if (regressions.isEmpty()) {
+            report.append("No step pattern regressed.\n");
+        }
+        for (Regression regression : regressions) {
+            PatternProfile before = regression.baseline();
+            PatternProfile after = regression.current();
+            report.append("## `").append(regression.pattern()).append("`\n\n");
+            report.append("p95 ").append(before.p95Ms()).append(" ms -> ").append(after.p95Ms()).append(" ms (")
+                  .append(percent(regression.p95Change())).append("), ").append(shift(regression)).append('\n');
+            report.append("Glue: `").append(after.glue()).append("`\n\n");
+            report.append("| | count | p50 ms | p90 ms | p95 ms | p99 ms | max ms |\n");
+            report.append("|---|---|---|---|---|---|---|\n");
+            appendRow(report, "baseline", before);
+            appendRow(report, "current", after);
+            report.append("\nSlowest occurrences:\n");
+            for (Sample sample : after.slowest()) {
+                report.append("- ").append(sample.durationMs()).append(" ms `").append(sample.step()).append("` in '")
+                      .append(sample.scenario()).append("' (").append(sample.location()).append(")\n");
+            }
+            report.append('\n');
+        }
+        try {
+            Files.writeString(reportFile, report, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write step latency report: {}", reportFile, e);
+        }
+    }
+
+    /**
+     * A median that moved with the p95 points at the application or environment; a stable median at
+     * intermittent slowness such as waits that hit their timeout
+     */
+    private static String shift(Regression regression) {
+        return regression.p50Change() >= regression.p95Change() / 2
+            ? "whole distribution shifted (p50 " + percent(regression.p50Change()) + ")"
+            : "tail only (p50 " + percent(regression.p50Change()) + ")";
+    }
+
+    private static void appendRow(StringBuilder report, String label, PatternProfile profile) {
+        report.append("| ").append(label).append(" | ").append(profile.count()).append(" | ").append(profile.p50Ms())
+              .append(" | ").append(profile.p90Ms()).append(" | ").append(profile.p95Ms()).append(" | ")
+              .append(profile.p99Ms()).append(" | ").append(profile.maxMs()).append(" |\n");
+    }
+
+    private static double change(double before, double after) {
+        return before <= 0 ? 0 : (after - before) / before;
+    }
+
+    private static String percent(double fraction) {
+        return String.format("%+.0f%%", fraction * 100);
+    }
+}
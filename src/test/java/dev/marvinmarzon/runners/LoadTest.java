@@ -0,0 +1,325 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.runners.StepLatencyProfile.PatternProfile;
+import dev.marvinmarzon.utils.SuiteMetrics;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Browser-driven load test over the existing scenarios, run by {@link LoadTestRunner} (test.load.enabled=true)
+ * The scenarios matching test.load.tags are run by test.load.users virtual users. Each user is a
+ * thread with its own driver that cycles through the selection, starting at a different scenario,
+ * until the test ends. Users start evenly spread over the ramp-up and pause for a random think time
+ * after every step. Step durations arrive through {@link StepLatencyPlugin}; percentiles and
+ * throughput only cover the steady state, from the end of the ramp-up to the end of the test.
+ */
+public final class LoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ThreadLocal<Integer> virtualUser = new ThreadLocal<>();
+    private static final AtomicInteger activeUsers = new AtomicInteger();
+    private static final StepLatencyProfile steadyState = new StepLatencyProfile();
+    private static final Map<String, LongAdder> stepErrors = new ConcurrentHashMap<>();
+    private static final LongAdder iterations = new LongAdder();
+    private static final LongAdder failedIterations = new LongAdder();
+    private static final LongAdder steadyIterations = new LongAdder();
+
+    private static volatile Instant steadyStart;
+    private static volatile Instant end;
+    private static volatile long[] thinkTimeMs = {0, 0};
+    private static volatile List<String> scenarioNames = List.of();
+
+    static {
+        SuiteMetrics.registerGauge("suite_load_virtual_users", "Load test virtual users currently running",
+                                   activeUsers::get);
+    }
+
+    /**
+     * Load test report: run shape, iteration counts and steady-state statistics per step pattern
+     */
+    public record Report(String generated, int users, int rampUpSeconds, int durationSeconds, String thinkTimeMs,
+                         List<String> scenarios, long iterations, long failedIterations,
+                         double iterationsPerSecond, Map<String, StepStats> steps) {
+    }
+
+    public record StepStats(long count, long errors, double throughputPerSecond, double meanMs, double p50Ms,
+                            double p90Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    private LoadTest() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Run the selected scenarios as virtual users and fail if too many iterations failed
+     */
+    public static void run(Object[][] scenarios, BiConsumer<PickleWrapper, FeatureWrapper> scenarioRunner) {
+        String tags = TestConfigManager.getLoadTestTags();
+        Expression selection = TagExpressionParser.parse(tags);
+        List<Object[]> selected = new ArrayList<>();
+        for (Object[] row : scenarios) {
+            if (selection.evaluate(((PickleWrapper) row[0]).getPickle().getTags())) {
+                selected.add(row);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalStateException("No scenario matches the load test tags: " + tags);
+        }
+
+        int users = Math.max(1, TestConfigManager.getLoadTestUsers());
+        int rampUpSeconds = Math.max(0, TestConfigManager.getLoadTestRampUpSeconds());
+        int durationSeconds = Math.max(1, TestConfigManager.getLoadTestDurationSeconds());
+        thinkTimeMs = parseThinkTime(TestConfigManager.getLoadTestThinkTimeMs());
+        scenarioNames = selected.stream().map(row -> ((PickleWrapper) row[0]).getPickle().getName()).toList();
+
+        Instant start = Instant.now();
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(rampUpSeconds + durationSeconds);
+        steadyStart = start.plusSeconds(rampUpSeconds);
+        end = steadyStart.plusSeconds(durationSeconds);
+        logger.info("=== Load test: {} users, {} s ramp-up, {} s steady state, think time {} ms, {} scenarios ===",
+                   users, rampUpSeconds, durationSeconds, TestConfigManager.getLoadTestThinkTimeMs(), selected.size());
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(users,
+            runnable -> new Thread(runnable, "load-user-" + threadIndex.incrementAndGet()));
+        List<Future<?>> outcomes = new ArrayList<>();
+        try {
+            for (int user = 0; user < users; user++) {
+                int index = user;
+                long startDelayMillis = TimeUnit.SECONDS.toMillis(rampUpSeconds) * user / users;
+                outcomes.add(executor.submit(() ->
+                    runUser(index, startDelayMillis, deadlineNanos, selected, scenarioRunner)));
+            }
+            for (Future<?> outcome : outcomes) {
+                await(outcome);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = iterations.sum();
+        long failed = failedIterations.sum();
+        double errorPercent = total == 0 ? 100 : failed * 100.0 / total;
+        logger.info("Load test finished: {} iterations, {} failed ({}%), {} in the steady state",
+                   total, failed, String.format("%.1f", errorPercent), steadyIterations.sum());
+        if (errorPercent > TestConfigManager.getLoadTestMaxErrorPercent()) {
+            throw new AssertionError(String.format("Load test error rate %.1f%% exceeds %.1f%% (%d of %d iterations failed)",
+                                                   errorPercent, TestConfigManager.getLoadTestMaxErrorPercent(), failed, total));
+        }
+    }
+
+    /**
+     * Whether the current thread is a load test virtual user
+     */
+    public static boolean isVirtualUser() {
+        return virtualUser.get() != null;
+    }
+
+    /**
+     * Whether the current thread's driver should be kept for its next iteration
+     */
+    public static boolean keepsDriver() {
+        return isVirtualUser() && TestConfigManager.isLoadTestReuseDriver();
+    }
+
+    /**
+     * Pause a virtual user for a random think time; returns immediately on other threads
+     */
+    public static void thinkTime() {
+        long[] range = thinkTimeMs;
+        if (!isVirtualUser() || range[1] <= 0) {
+            return;
+        }
+        sleep(range[0] == range[1] ? range[0] : ThreadLocalRandom.current().nextLong(range[0], range[1] + 1));
+    }
+
+    /**
+     * Count a finished step of a virtual user if it finished in the steady state
+     */
+    static void recordStep(PickleStepTestStep step, Result result, Instant finished, TestCase testCase) {
+        Instant from = steadyStart;
+        Instant to = end;
+        if (from == null || finished.isBefore(from) || finished.isAfter(to)) {
+            return;
+        }
+        if (result.getStatus() == Status.PASSED) {
+            steadyState.record(step.getPattern(), step.getCodeLocation(), result.getDuration().toNanos(),
+                step.getStep().getKeyword() + step.getStep().getText(), testCase.getName(),
+                testCase.getUri() + ":" + step.getStep().getLine());
+        } else if (result.getStatus() == Status.FAILED) {
+            stepErrors.computeIfAbsent(step.getPattern(), pattern -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Log the steady-state step table and write the report once all step events have arrived
+     */
+    static void writeReport() {
+        if (steadyStart == null) {
+            return;
+        }
+        Report report = report();
+        Path file = Paths.get(TestConfigManager.getLoadTestReportPath());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        } catch (IOException e) {
+            logger.warn("Could not write load test report: {}", file, e);
+        }
+
+        logger.info("Load test steady state: {} users, {} iterations ({}/s)", report.users(),
+                   steadyIterations.sum(), String.format("%.2f", report.iterationsPerSecond()));
+        logger.info(String.format("%-50s %7s %6s %7s %8s %8s %8s %8s %8s %8s", "Step", "Count", "Errors",
+                                  "Per s", "Mean ms", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "Max ms"));
+        report.steps().forEach((pattern, stats) ->
+            logger.info(String.format("%-50s %7d %6d %7.2f %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f",
+                                      abbreviate(pattern), stats.count(), stats.errors(), stats.throughputPerSecond(),
+                                      stats.meanMs(), stats.p50Ms(), stats.p90Ms(), stats.p95Ms(), stats.p99Ms(),
+                                      stats.maxMs())));
+        logger.info("Load test report written to: {}", file);
+    }
+
+    private static Report report() {
+        double seconds = Math.max(0.001, (end.toEpochMilli() - steadyStart.toEpochMilli()) / 1000.0);
+        Map<String, PatternProfile> profiles = steadyState.snapshot().steps();
+        Map<String, StepStats> steps = new TreeMap<>();
+        profiles.forEach((pattern, profile) -> {
+            long errors = errors(pattern);
+            steps.put(pattern, new StepStats(profile.count(), errors, round((profile.count() + errors) / seconds),
+                                             profile.meanMs(), profile.p50Ms(), profile.p90Ms(), profile.p95Ms(),
+                                             profile.p99Ms(), profile.maxMs()));
+        });
+        // Steps that never passed in the steady state still show up with their errors
+        stepErrors.forEach((pattern, errors) -> steps.putIfAbsent(pattern,
+            new StepStats(0, errors.sum(), round(errors.sum() / seconds), 0, 0, 0, 0, 0, 0)));
+        return new Report(Instant.now().toString(), TestConfigManager.getLoadTestUsers(),
+                          TestConfigManager.getLoadTestRampUpSeconds(), TestConfigManager.getLoadTestDurationSeconds(),
+                          TestConfigManager.getLoadTestThinkTimeMs(), scenarioNames, iterations.sum(),
+                          failedIterations.sum(), round(steadyIterations.sum() / seconds), steps);
+    }
+
+    private static void runUser(int user, long startDelayMillis, long deadlineNanos, List<Object[]> scenarios,
+                                BiConsumer<PickleWrapper, FeatureWrapper> scenarioRunner) {
+        if (!sleep(startDelayMillis)) {
+            return;
+        }
+        virtualUser.set(user);
+        activeUsers.incrementAndGet();
+        logger.info("Virtual user {} started", user + 1);
+        try {
+            for (int iteration = user; System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted(); iteration++) {
+                Object[] row = scenarios.get(iteration % scenarios.size());
+                Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+                boolean passed = false;
+                try {
+                    scenarioRunner.accept((PickleWrapper) row[0], (FeatureWrapper) row[1]);
+                    passed = true;
+                } catch (Throwable t) {
+                    logger.warn("Virtual user {} failed '{}': {}", user + 1, pickle.getName(), t.toString());
+                }
+                iterations.increment();
+                if (!passed) {
+                    failedIterations.increment();
+                    // Never carry a driver a failed iteration may have left behind into the next one
+                    EnterpriseWebDriverManager.quitDriver();
+                }
+                Instant finished = Instant.now();
+                if (!finished.isBefore(steadyStart) && !finished.isAfter(end)) {
+                    steadyIterations.increment();
+                }
+            }
+        } finally {
+            EnterpriseWebDriverManager.quitDriver();
+            activeUsers.decrementAndGet();
+            virtualUser.remove();
+        }
+    }
+
+    /**
+     * Parse "min-max" or a single value in milliseconds
+     */
+    static long[] parseThinkTime(String spec) {
+        String[] bounds = spec.trim().split("\\s*-\\s*", 2);
+        try {
+            long min = Long.parseLong(bounds[0]);
+            long max = bounds.length > 1 ? Long.parseLong(bounds[1]) : min;
+            if (min < 0 || max < min) {
+                throw new IllegalArgumentException("Invalid load test think time range: " + spec);
+            }
+            return new long[] {min, max};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid load test think time: " + spec, e);
+        }
+    }
+
+    private static long errors(String pattern) {
+        LongAdder errors = stepErrors.get(pattern);
+        return errors == null ? 0 : errors.sum();
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void await(Future<?> outcome) {
+        try {
+            outcome.get();
+        } catch (ExecutionException e) {
+            logger.error("Virtual user stopped unexpectedly", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static String abbreviate(String pattern) {
+        return pattern.length() <= 50 ? pattern : pattern.substring(0, 47) + "...";
+    }
+}
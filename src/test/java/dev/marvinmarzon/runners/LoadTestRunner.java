@@ -0,0 +1,24 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import org.testng.annotations.Test;
+
+/**
+ * Browser-driven load test runner, selected by load-test-suite.xml (mvn test -Pload)
+ * Shares the suite setup, teardown and report plugins of CucumberTestNGRunner; with test.load.enabled=true
+ * its data provider hands out no scenarios, so the load run is its only test. The default suites do
+ * not list this class, so normal runs report no load test at all.
+ */
+public class LoadTestRunner extends CucumberTestNGRunner {
+
+    /**
+     * Run the scenarios selected by test.load.tags as concurrent virtual users
+     */
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios as a browser-driven load test")
+    public void runLoadTest() {
+        if (!TestConfigManager.isLoadTestEnabled()) {
+            throw new IllegalStateException("LoadTestRunner needs test.load.enabled=true; run it with mvn test -Pload");
+        }
+        LoadTest.run(allScenarios(), this::runCucumberScenario);
+    }
+}
@@ -0,0 +1,176 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming result sink: appends one NDJSON record per finished step and scenario
+ * Each record is flushed as it is written, so the file can be watched while the suite runs and
+ * a killed fork leaves every finished record behind. Nothing is kept per scenario, so memory use
+ * does not grow with the suite. results-viewer.html next to the file renders it incrementally.
+ *
+ * Usage: dev.marvinmarzon.runners.NdjsonResultSink:target/reports/results.ndjson
+ */
+public final class NdjsonResultSink implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonResultSink.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String VIEWER_RESOURCE = "reports/results-viewer.html";
+
+    // Runners of later <test> blocks append to the file the first runner started
+    private static final Set<Path> startedFiles = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final Writer writer;
+    private final Map<Status, Integer> scenarioCounts = new EnumMap<>(Status.class);
+
+    public NdjsonResultSink(File file) {
+        this.file = file.toPath().toAbsolutePath();
+        try {
+            if (this.file.getParent() != null) {
+                Files.createDirectories(this.file.getParent());
+            }
+            boolean append = !startedFiles.add(this.file);
+            this.writer = Files.newBufferedWriter(this.file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.WRITE,
+                                                  append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open NDJSON result file: " + file, e);
+        }
+        copyViewer();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::onRunStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+
+    private void onRunStarted(TestRunStarted event) {
+        Map<String, Object> record = record("run-started", event.getInstant());
+        record.put("pid", ProcessHandle.current().pid());
+        write(record);
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        Result result = event.getResult();
+        Map<String, Object> record;
+        if (event.getTestStep() instanceof PickleStepTestStep step) {
+            record = record("step", event.getInstant());
+            record.put("text", step.getStep().getKeyword() + step.getStep().getText());
+            record.put("line", step.getStep().getLine());
+        } else if (event.getTestStep() instanceof HookTestStep hook && result.getStatus() == Status.FAILED) {
+            // Passing hooks are noise; failing ones explain a failed scenario
+            record = record("hook", event.getInstant());
+            record.put("text", hook.getHookType() + " " + hook.getCodeLocation());
+        } else {
+            return;
+        }
+        record.put("scenarioId", event.getTestCase().getId().toString());
+        putResult(record, result);
+        write(record);
+    }
+
+    private void onCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        Result result = event.getResult();
+        synchronized (scenarioCounts) {
+            scenarioCounts.merge(result.getStatus(), 1, Integer::sum);
+        }
+
+        Map<String, Object> record = record("scenario", event.getInstant());
+        record.put("scenarioId", testCase.getId().toString());
+        record.put("name", testCase.getName());
+        record.put("uri", testCase.getUri().toString());
+        record.put("line", testCase.getLocation().getLine());
+        record.put("tags", testCase.getTags());
+        putResult(record, result);
+        write(record);
+    }
+
+    private void onRunFinished(TestRunFinished event) {
+        Map<String, Object> record = record("run-finished", event.getInstant());
+        synchronized (scenarioCounts) {
+            scenarioCounts.forEach((status, count) -> record.put(status.name().toLowerCase(), count));
+        }
+        write(record);
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Could not close NDJSON result file: {}", file, e);
+        }
+        logger.info("Streaming results written to: {}", file);
+    }
+
+    private static Map<String, Object> record(String type, Instant instant) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("type", type);
+        record.put("time", instant.toString());
+        return record;
+    }
+
+    private static void putResult(Map<String, Object> record, Result result) {
+        record.put("status", result.getStatus().name());
+        record.put("durationMs", result.getDuration().toMillis());
+        if (result.getError() != null) {
+            record.put("error", String.valueOf(result.getError()));
+        }
+    }
+
+    /**
+     * One line per record, flushed immediately so readers and killed forks see whole records
+     */
+    private synchronized void write(Map<String, Object> record) {
+        try {
+            writer.write(MAPPER.writeValueAsString(record));
+            writer.write('\n');
+            writer.flush();
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize result record of type {}", record.get("type"), e);
+        } catch (IOException e) {
+            logger.warn("Could not write to NDJSON result file: {}", file, e);
+        }
+    }
+
+    private void copyViewer() {
+        Path viewer = file.resolveSibling("results-viewer.html");
+        try (InputStream stream = NdjsonResultSink.class.getClassLoader().getResourceAsStream(VIEWER_RESOURCE)) {
+            if (stream != null) {
+                Files.copy(stream, viewer, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not copy results viewer to: {}", viewer, e);
+        }
+    }
+}
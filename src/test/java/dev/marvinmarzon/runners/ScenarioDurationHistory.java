@@ -0,0 +1,233 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.testng.Pickle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical per-scenario durations harvested from previous Cucumber JSON reports
+ * Durations are kept as an exponentially weighted average per scenario (feature path relative to
+ * the features root + line) in a history file that survives "mvn clean".
+ */
+public class ScenarioDurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioDurationHistory.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double SMOOTHING = 0.5;
+    private static final String CLASSPATH_FEATURES_ROOT = "features/";
+
+    private static volatile ScenarioDurationHistory instance;
+
+    private final Path historyFile;
+    private final Map<String, Double> durations = new ConcurrentHashMap<>();
+
+    private ScenarioDurationHistory(Path historyFile) {
+        this.historyFile = historyFile;
+        load();
+    }
+
+    /**
+     * Shared history, loaded once per JVM for all runner instances
+     */
+    public static ScenarioDurationHistory getInstance() {
+        ScenarioDurationHistory history = instance;
+        if (history == null) {
+            synchronized (ScenarioDurationHistory.class) {
+                history = instance;
+                if (history == null) {
+                    history = new ScenarioDurationHistory(Paths.get(TestConfigManager.getScheduleHistoryPath()));
+                    instance = history;
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * History read from an explicitly supplied file, e.g. the one shared by all shards of a run
+     */
+    static ScenarioDurationHistory fromFile(Path historyFile) {
+        if (!Files.isRegularFile(historyFile)) {
+            throw new IllegalStateException("Scenario duration history not found: " + historyFile.toAbsolutePath());
+        }
+        return new ScenarioDurationHistory(historyFile);
+    }
+
+    /**
+     * Short SHA-256 of the history file contents, so shards can confirm they partitioned from the same input
+     */
+    String fingerprint() {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(historyFile));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read scenario duration history: " + historyFile, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Key identifying a scenario (or outline example row) across runs
+     */
+    public static String scenarioKey(Pickle pickle) {
+        return scenarioKey(pickle.getUri(), pickle.getLine());
+    }
+
+    static String scenarioKey(URI uri, int line) {
+        return scenarioKey(uri.toString(), line);
+    }
+
+    static String scenarioKey(String uri, int line) {
+        return featurePath(uri) + ":" + line;
+    }
+
+    /**
+     * Feature path relative to the features root, e.g. "checkout/payment.feature"
+     * Pickles carry absolute file URIs while the JSON report carries working-directory relative ones;
+     * both map to the same path, and feature files with the same name in different folders stay apart.
+     */
+    static String featurePath(String uri) {
+        try {
+            URI parsed = URI.create(uri);
+            if ("classpath".equals(parsed.getScheme())) {
+                String path = parsed.getSchemeSpecificPart().replaceFirst("^/", "");
+                return path.startsWith(CLASSPATH_FEATURES_ROOT) ? path.substring(CLASSPATH_FEATURES_ROOT.length()) : path;
+            }
+            if ("file".equals(parsed.getScheme())) {
+                Path path = (parsed.isOpaque() ? Paths.get(parsed.getSchemeSpecificPart()) : Paths.get(parsed))
+                    .toAbsolutePath().normalize();
+                Path root = Paths.get(AbstractCucumberRunner.FEATURES_ROOT).toAbsolutePath().normalize();
+                Path relative = path.startsWith(root) ? root.relativize(path)
+                    : Paths.get("").toAbsolutePath().relativize(path);
+                return relative.toString().replace('\\', '/');
+            }
+        } catch (IllegalArgumentException e) {
+            logger.debug("Unrecognized feature URI {}: {}", uri, e.getMessage());
+        }
+        return uri;
+    }
+
+    /**
+     * Known duration in seconds, or null when the scenario has no history
+     */
+    public Double getDuration(String key) {
+        return durations.get(key);
+    }
+
+    /**
+     * Median known duration of scenarios in the same feature file, or of all scenarios
+     */
+    public Double getMedianDuration(String featurePath) {
+        List<Double> featureDurations = new ArrayList<>();
+        List<Double> allDurations = new ArrayList<>();
+        durations.forEach((key, value) -> {
+            allDurations.add(value);
+            if (featurePath != null && key.startsWith(featurePath + ":")) {
+                featureDurations.add(value);
+            }
+        });
+        return median(featureDurations.isEmpty() ? allDurations : featureDurations);
+    }
+
+    /**
+     * Merge scenario durations from a Cucumber JSON report and persist the history.
+     * Background steps are attributed to the scenario that follows them.
+     *
+     * @return actual durations (seconds) of the scenarios found in the report
+     */
+    public synchronized Map<String, Double> ingestReport(Path jsonReport) {
+        Map<String, Double> observed = new TreeMap<>();
+        if (!Files.exists(jsonReport)) {
+            logger.debug("No Cucumber JSON report to ingest at: {}", jsonReport);
+            return observed;
+        }
+
+        try {
+            JsonNode features = MAPPER.readTree(jsonReport.toFile());
+            for (JsonNode feature : features) {
+                String uri = feature.path("uri").asText();
+                long backgroundNanos = 0;
+                for (JsonNode element : feature.path("elements")) {
+                    long nanos = sumDurations(element, "before") + sumDurations(element, "steps")
+                               + sumDurations(element, "after");
+                    if ("background".equals(element.path("type").asText())) {
+                        backgroundNanos = nanos;
+                        continue;
+                    }
+                    observed.put(scenarioKey(uri, element.path("line").asInt()),
+                                 (backgroundNanos + nanos) / 1_000_000_000.0);
+                    backgroundNanos = 0;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read Cucumber JSON report: {}", jsonReport, e);
+            return observed;
+        }
+
+        observed.forEach((key, seconds) -> durations.merge(key, seconds,
+            (previous, latest) -> SMOOTHING * latest + (1 - SMOOTHING) * previous));
+        save();
+        logger.info("Ingested {} scenario durations from {} into {}", observed.size(), jsonReport, historyFile);
+        return observed;
+    }
+
+    private static long sumDurations(JsonNode element, String field) {
+        long total = 0;
+        for (JsonNode step : element.path(field)) {
+            total += step.path("result").path("duration").asLong(0);
+        }
+        return total;
+    }
+
+    private static Double median(List<Double> values) {
+        if (values.isEmpty()) {
+            return null;
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+
+    private void load() {
+        if (!Files.exists(historyFile)) {
+            return;
+        }
+        try {
+            durations.putAll(MAPPER.readValue(historyFile.toFile(), new TypeReference<Map<String, Double>>() { }));
+            logger.debug("Loaded {} scenario durations from: {}", durations.size(), historyFile);
+        } catch (IOException e) {
+            logger.warn("Could not load scenario duration history: {}", historyFile, e);
+        }
+    }
+
+    private void save() {
+        try {
+            if (historyFile.getParent() != null) {
+                Files.createDirectories(historyFile.getParent());
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(historyFile.toFile(), new TreeMap<>(durations));
+        } catch (IOException e) {
+            logger.warn("Could not save scenario duration history: {}", historyFile, e);
+        }
+    }
+}
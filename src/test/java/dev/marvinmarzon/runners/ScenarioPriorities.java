@@ -0,0 +1,139 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tag-based priority classes for scenario dispatch
+ * TestNG hands data provider rows to its worker pool through a FIFO queue, so ordering the rows
+ * by priority class means every higher-priority scenario is dispatched before any lower one.
+ * With an early-exit threshold, enough failures in the top class cancel all lower-priority work.
+ */
+public class ScenarioPriorities {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioPriorities.class);
+    private static final String CANCELLED = "cancelled-early-exit";
+
+    private final List<String> classNames;
+    private final List<Expression> classes;
+    private final Map<String, Integer> priorityByScenario = new ConcurrentHashMap<>();
+    private final AtomicInteger topPending = new AtomicInteger();
+    private final AtomicInteger topPassed = new AtomicInteger();
+    private final AtomicInteger topFailed = new AtomicInteger();
+    private final AtomicBoolean earlyExit = new AtomicBoolean();
+    private volatile long startNanos;
+
+    public ScenarioPriorities() {
+        this.classNames = Arrays.stream(TestConfigManager.getPriorityClasses().split(","))
+                                .map(String::trim)
+                                .filter(name -> !name.isEmpty())
+                                .toList();
+        this.classes = classNames.stream().map(TagExpressionParser::parse).toList();
+    }
+
+    /**
+     * Stable sort of the rows by priority class, keeping the existing order within a class
+     */
+    public Object[][] order(Object[][] scenarios) {
+        startNanos = System.nanoTime();
+        if (classes.isEmpty()) {
+            return scenarios;
+        }
+
+        int[] counts = new int[classes.size() + 1];
+        List<Object[]> rows = new ArrayList<>(Arrays.asList(scenarios));
+        for (Object[] row : rows) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            int priority = priorityOf(pickle);
+            priorityByScenario.put(ScenarioDurationHistory.scenarioKey(pickle), priority);
+            counts[priority]++;
+        }
+        rows.sort(Comparator.comparingInt(row -> priorityByScenario.get(
+            ScenarioDurationHistory.scenarioKey(((PickleWrapper) row[0]).getPickle()))));
+        topPending.set(counts[0]);
+
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < classes.size(); i++) {
+            summary.append(classNames.get(i)).append('=').append(counts[i]).append(", ");
+        }
+        logger.info("Priority classes: {}other={}", summary, counts[classes.size()]);
+        if (TestConfigManager.getPriorityEarlyExitFailures() > 0) {
+            logger.info("Early exit after {} failed '{}' scenarios", TestConfigManager.getPriorityEarlyExitFailures(),
+                       classNames.get(0));
+        }
+        return rows.toArray(Object[][]::new);
+    }
+
+    /**
+     * True once the early-exit policy has fired and the scenario is below the top class
+     */
+    public boolean isCancelled(Pickle pickle) {
+        if (!earlyExit.get() || priority(pickle) == 0) {
+            return false;
+        }
+        logger.info("{}: {}", CANCELLED, pickle.getName());
+        // Hand the browser back before the worker moves on; cancelled scenarios never need one
+        if (EnterpriseWebDriverManager.isDriverInitialized()) {
+            EnterpriseWebDriverManager.quitDriver();
+        }
+        return true;
+    }
+
+    public static String cancelMessage(Pickle pickle) {
+        return CANCELLED + ": '" + pickle.getName() + "' not run after the top priority class failed";
+    }
+
+    /**
+     * Count a final outcome: a pass, or a failure that will not be retried again
+     * (skips count as not failed); logs the verdict once the top class is complete
+     */
+    public void recordOutcome(Pickle pickle, boolean scenarioFailed) {
+        if (classes.isEmpty() || priority(pickle) != 0) {
+            return;
+        }
+        int failed = scenarioFailed ? topFailed.incrementAndGet() : topFailed.get();
+        if (!scenarioFailed) {
+            topPassed.incrementAndGet();
+        }
+
+        int threshold = TestConfigManager.getPriorityEarlyExitFailures();
+        if (threshold > 0 && failed >= threshold && earlyExit.compareAndSet(false, true)) {
+            logger.error("Early exit: {} '{}' scenarios failed, cancelling remaining lower-priority scenarios",
+                        failed, classNames.get(0));
+        }
+        if (topPending.decrementAndGet() == 0) {
+            // Every other top-class outcome was counted before its decrement
+            int totalFailed = topFailed.get();
+            logger.info("'{}' verdict: {} ({} passed, {} failed) after {}s", classNames.get(0),
+                       totalFailed == 0 ? "PASSED" : "FAILED", topPassed.get(), totalFailed,
+                       String.format("%.1f", (System.nanoTime() - startNanos) / 1_000_000_000.0));
+        }
+    }
+
+    private int priority(Pickle pickle) {
+        return priorityByScenario.getOrDefault(ScenarioDurationHistory.scenarioKey(pickle), classes.size());
+    }
+
+    private int priorityOf(Pickle pickle) {
+        for (int i = 0; i < classes.size(); i++) {
+            if (classes.get(i).evaluate(pickle.getTags())) {
+                return i;
+            }
+        }
+        return classes.size();
+    }
+}
@@ -0,0 +1,248 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.marvinmarzon.stepdefs.BaseStepDefinitions;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.testng.Pickle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Incremental mode: remembers scenarios that passed together with a fingerprint of everything
+ * that can change their outcome (feature file, glue and main classes, fixtures, pom.xml, relevant configuration).
+ * A scenario whose fingerprint is unchanged since its last passing run is skipped as "skipped-cached".
+ */
+public class ScenarioResultCache {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioResultCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SKIPPED_CACHED = "skipped-cached";
+
+    private static volatile ScenarioResultCache instance;
+
+    private final Path cacheFile;
+    private final boolean enabled;
+    private final boolean forced;
+    private final String codeHash;
+    private final String configHash;
+    private final Map<String, String> passed = new ConcurrentHashMap<>();
+    private final Map<URI, String> featureHashes = new ConcurrentHashMap<>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger executed = new AtomicInteger();
+
+    private ScenarioResultCache() {
+        this.cacheFile = Paths.get(TestConfigManager.getResultCachePath());
+        this.enabled = TestConfigManager.isResultCacheEnabled();
+        this.forced = TestConfigManager.isResultCacheForced();
+        this.codeHash = enabled ? hashFiles(codeRoots()) : "";
+        this.configHash = enabled ? hash(relevantConfiguration()) : "";
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Shared cache, loaded once per JVM for all runner instances
+     */
+    public static ScenarioResultCache getInstance() {
+        ScenarioResultCache cache = instance;
+        if (cache == null) {
+            synchronized (ScenarioResultCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new ScenarioResultCache();
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * True when the scenario passed last time and nothing it depends on has changed
+     */
+    public boolean isCachedPass(Pickle pickle) {
+        if (!enabled || forced) {
+            return false;
+        }
+        String fingerprint = fingerprint(pickle);
+        if (fingerprint != null && fingerprint.equals(passed.get(key(pickle)))) {
+            hits.incrementAndGet();
+            logger.info("{}: {} ({})", SKIPPED_CACHED, pickle.getName(), key(pickle));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remember a passing outcome, or forget the scenario when it did not pass
+     */
+    public void record(Pickle pickle, boolean scenarioPassed) {
+        if (!enabled) {
+            return;
+        }
+        executed.incrementAndGet();
+        String fingerprint = scenarioPassed ? fingerprint(pickle) : null;
+        if (fingerprint != null) {
+            passed.put(key(pickle), fingerprint);
+        } else {
+            passed.remove(key(pickle));
+        }
+    }
+
+    /**
+     * Message used for TestNG skips so cache hits are distinguishable from other skips
+     */
+    public static String skipMessage(Pickle pickle) {
+        return SKIPPED_CACHED + ": unchanged since last passing run (" + pickle.getName() + ")";
+    }
+
+    /**
+     * Persist the cache and log hit statistics
+     */
+    public synchronized void save() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (cacheFile.getParent() != null) {
+                Files.createDirectories(cacheFile.getParent());
+            }
+            Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), new TreeMap<>(passed));
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not save scenario result cache: {}", cacheFile, e);
+        }
+        logger.info("Result cache{}: {} scenarios skipped-cached, {} executed, {} passing entries in {}",
+                   forced ? " (forced full run)" : "", hits.get(), executed.get(), passed.size(), cacheFile);
+    }
+
+    private String key(Pickle pickle) {
+        return pickle.getUri() + ":" + pickle.getLine();
+    }
+
+    /**
+     * Step text is not exposed by the TestNG pickle, so the whole feature file is hashed:
+     * any edit to a feature re-runs all of its scenarios.
+     */
+    private String fingerprint(Pickle pickle) {
+        String featureHash = featureHashes.computeIfAbsent(pickle.getUri(), this::hashFeature);
+        if (featureHash.isEmpty()) {
+            return null;
+        }
+        return hash(String.join("\n", pickle.getName(), String.join(",", pickle.getTags()),
+                                featureHash, codeHash, configHash));
+    }
+
+    private String hashFeature(URI uri) {
+        if (!"file".equals(uri.getScheme())) {
+            logger.debug("Not caching scenarios of non-file feature: {}", uri);
+            return "";
+        }
+        try {
+            return hash(Files.readString(Paths.get(uri), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not read feature file for result cache: {}", uri, e);
+            return "";
+        }
+    }
+
+    /**
+     * Every test.* setting of the effective configuration, so no setting that can change a scenario's
+     * outcome is missed; only the cache's own switches are left out so that a forced run refreshes the cache.
+     */
+    private static String relevantConfiguration() {
+        StringBuilder configuration = new StringBuilder();
+        TestConfigManager.getProperties("test.").forEach((key, value) -> {
+            if (!key.startsWith("resultcache.")) {
+                configuration.append(key).append('=').append(value).append('\n');
+            }
+        });
+        return configuration.toString();
+    }
+
+    /**
+     * Glue classes, the main framework classes they call into, the page fixtures (as copied to the test
+     * classes and as served from test.fixture.root) and the build file that pins every dependency version
+     */
+    private static List<Path> codeRoots() {
+        Path glueRoot = classRoot(BaseStepDefinitions.class);
+        String gluePackage = BaseStepDefinitions.class.getPackageName().replace('.', '/');
+        return Stream.of(glueRoot != null ? glueRoot.resolve(gluePackage) : null,
+                         classRoot(TestConfigManager.class),
+                         glueRoot != null ? glueRoot.resolve("fixtures") : null,
+                         Paths.get(TestConfigManager.getFixtureRoot()),
+                         Paths.get("pom.xml"))
+                     .filter(path -> path != null && Files.exists(path))
+                     .map(path -> path.toAbsolutePath().normalize())
+                     .distinct()
+                     .toList();
+    }
+
+    private static Path classRoot(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Exception e) {
+            logger.warn("Could not locate classes of {} for result cache", type.getName(), e);
+            return null;
+        }
+    }
+
+    private static String hashFiles(List<Path> roots) {
+        MessageDigest digest = newDigest();
+        for (Path root : roots) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                    digest.update(root.getFileName().resolve(root.relativize(file)).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } catch (IOException e) {
+                logger.warn("Could not hash {}; caching disabled for this run", root, e);
+                return String.valueOf(System.nanoTime());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String hash(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        try {
+            passed.putAll(MAPPER.readValue(cacheFile.toFile(), new TypeReference<Map<String, String>>() { }));
+            logger.debug("Loaded {} cached scenario results from: {}", passed.size(), cacheFile);
+        } catch (IOException e) {
+            logger.warn("Could not load scenario result cache: {}", cacheFile, e);
+        }
+    }
+}
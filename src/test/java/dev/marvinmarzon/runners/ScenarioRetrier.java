@@ -0,0 +1,135 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Retry of failed scenarios through TestNG's retry analyzer (test.retry.enabled=true)
+ * A failed scenario is re-invoked as the same TestNG test with a fresh driver, up to
+ * test.retry.max.attempts times; the last attempt's outcome is the test's verdict, earlier attempts are
+ * marked as retried. At most test.retry.thread.count retries run at once, so a burst of failures does not
+ * take over the pool. Outcomes feed the persisted flakiness statistics, and quarantined scenarios that
+ * still fail are skipped instead of failing the build.
+ */
+public class ScenarioRetrier implements IRetryAnalyzer {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioRetrier.class);
+    private static final String QUARANTINED = "quarantined";
+
+    // Retries done per scenario; Pickle has identity equality, so each runner's scenarios count separately
+    private static final Map<Pickle, Integer> retries = new ConcurrentHashMap<>();
+    private static volatile Semaphore retrySlots;
+
+    /**
+     * Whether TestNG should run the failed scenario again
+     */
+    @Override
+    public boolean retry(ITestResult result) {
+        Pickle pickle = pickleOf(result);
+        if (pickle == null) {
+            return false;
+        }
+        if (!willRetry(pickle)) {
+            // Attempts used up; the runner has already recorded the final outcome
+            retries.remove(pickle);
+            return false;
+        }
+        int attempt = retries.merge(pickle, 1, Integer::sum);
+        // Never reuse a driver a failed attempt may have left behind
+        if (EnterpriseWebDriverManager.isDriverInitialized()) {
+            EnterpriseWebDriverManager.quitDriver();
+        }
+        logger.warn("Scenario '{}' failed, retry {} of {}: {}", pickle.getName(), attempt,
+                   TestConfigManager.getRetryMaxAttempts(), String.valueOf(result.getThrowable()));
+        return true;
+    }
+
+    /**
+     * Whether a failure of the scenario's current attempt will be retried
+     */
+    public static boolean willRetry(Pickle pickle) {
+        return TestConfigManager.isRetryEnabled()
+            && retries.getOrDefault(pickle, 0) < TestConfigManager.getRetryMaxAttempts();
+    }
+
+    /**
+     * Run one attempt of a scenario; retries wait for one of test.retry.thread.count slots
+     */
+    public static void runAttempt(Pickle pickle, Runnable attempt) {
+        if (!retries.containsKey(pickle)) {
+            attempt.run();
+            return;
+        }
+        Semaphore slots = slots();
+        slots.acquireUninterruptibly();
+        try {
+            attempt.run();
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Record a scenario's final outcome in the flakiness statistics
+     *
+     * @return true when the scenario failed but is quarantined, so the failure should not fail the build
+     */
+    public static boolean recordFinalOutcome(Pickle pickle, boolean failed) {
+        if (!TestConfigManager.isRetryEnabled()) {
+            return false;
+        }
+        String key = ScenarioDurationHistory.scenarioKey(pickle);
+        // A failure keeps its count until retry() has seen the attempts are used up
+        boolean retried = failed ? retries.containsKey(pickle) : retries.remove(pickle) != null;
+        FlakinessStats stats = FlakinessStats.getInstance();
+        if (!failed) {
+            if (retried) {
+                logger.info("Scenario passed on retry: {}", key);
+                stats.recordFlaky(key);
+            } else {
+                stats.recordPassed(key);
+            }
+            return false;
+        }
+        stats.recordFailed(key);
+        if (stats.isQuarantined(key)) {
+            logger.warn("Quarantined scenario failed (not failing the build): {} ({})", pickle.getName(), key);
+            // Reported as a skip, so TestNG does not consult retry() again
+            retries.remove(pickle);
+            return true;
+        }
+        return false;
+    }
+
+    public static String quarantineMessage(Pickle pickle) {
+        return QUARANTINED + ": '" + pickle.getName() + "' is chronically flaky and failed after retries";
+    }
+
+    private static Pickle pickleOf(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        return parameters != null && parameters.length > 0 && parameters[0] instanceof PickleWrapper wrapper
+            ? wrapper.getPickle() : null;
+    }
+
+    private static Semaphore slots() {
+        Semaphore slots = retrySlots;
+        if (slots == null) {
+            synchronized (ScenarioRetrier.class) {
+                if (retrySlots == null) {
+                    retrySlots = new Semaphore(Math.max(1, TestConfigManager.getRetryThreadCount()));
+                }
+                slots = retrySlots;
+            }
+        }
+        return slots;
+    }
+}
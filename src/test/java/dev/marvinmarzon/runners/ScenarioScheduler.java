@@ -0,0 +1,132 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Duration-aware scenario scheduler for the TestNG parallel data provider
+ * Orders pickles longest-first (LPT) using historical durations so long scenarios
+ * do not land last and leave the other workers idle. With retries enabled, chronically
+ * flaky scenarios are moved to the front.
+ */
+public class ScenarioScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioScheduler.class);
+
+    /**
+     * Scenario row with its estimated duration
+     */
+    public record ScheduledScenario(Object[] row, String key, double estimatedSeconds, boolean fromHistory) {
+    }
+
+    /**
+     * Simulated list-scheduling outcome for a given order
+     */
+    public record Simulation(double makespanSeconds, double utilization) {
+    }
+
+    private ScenarioScheduler() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Estimate every scenario row and attach the estimate
+     */
+    public static List<ScheduledScenario> estimate(Object[][] scenarios) {
+        return estimate(scenarios, ScenarioDurationHistory.getInstance());
+    }
+
+    static List<ScheduledScenario> estimate(Object[][] scenarios, ScenarioDurationHistory history) {
+        double defaultEstimate = TestConfigManager.getScheduleDefaultEstimateSeconds();
+
+        List<ScheduledScenario> estimated = new ArrayList<>(scenarios.length);
+        for (Object[] row : scenarios) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            String key = ScenarioDurationHistory.scenarioKey(pickle);
+            Double known = history.getDuration(key);
+            if (known != null) {
+                estimated.add(new ScheduledScenario(row, key, known, true));
+            } else {
+                // No history: use the median of the same feature, then of all scenarios
+                Double median = history.getMedianDuration(key.substring(0, key.lastIndexOf(':')));
+                estimated.add(new ScheduledScenario(row, key, median != null ? median : defaultEstimate, false));
+            }
+        }
+        return estimated;
+    }
+
+    /**
+     * Reorder scenarios longest-first and log the estimated makespan improvement
+     */
+    public static Object[][] schedule(Object[][] scenarios, int workers) {
+        if (!TestConfigManager.isScheduleEnabled() || scenarios.length < 2) {
+            return scenarios;
+        }
+
+        List<ScheduledScenario> original = estimate(scenarios);
+        List<ScheduledScenario> ordered = new ArrayList<>(original);
+        // Chronically flaky scenarios go first so their retries happen early
+        FlakinessStats flakiness = TestConfigManager.isRetryEnabled() ? FlakinessStats.getInstance() : null;
+        ordered.sort(Comparator.comparing((ScheduledScenario scenario) ->
+                                   flakiness == null || !flakiness.isChronicallyFlaky(scenario.key()))
+                               .thenComparing(Comparator.comparingDouble(ScheduledScenario::estimatedSeconds).reversed()));
+
+        Simulation before = simulate(original, workers);
+        Simulation after = simulate(ordered, workers);
+        long withHistory = original.stream().filter(ScheduledScenario::fromHistory).count();
+
+        logger.info("Scenario schedule: {} scenarios ({} with history) on {} workers",
+                   original.size(), withHistory, workers);
+        logger.info("  Estimated makespan: {}s in feature order -> {}s longest-first ({}% shorter)",
+                   format(before.makespanSeconds()), format(after.makespanSeconds()),
+                   format(100.0 * (1 - after.makespanSeconds() / Math.max(before.makespanSeconds(), 1e-9))));
+        logger.info("  Estimated worker utilization: {}% -> {}%",
+                   format(100.0 * before.utilization()), format(100.0 * after.utilization()));
+
+        return ordered.stream().map(ScheduledScenario::row).toArray(Object[][]::new);
+    }
+
+    /**
+     * Simulate greedy list scheduling: each scenario goes to the worker that frees up first
+     */
+    public static Simulation simulate(List<ScheduledScenario> order, int workers) {
+        int poolSize = Math.max(1, workers);
+        PriorityQueue<Double> finishTimes = new PriorityQueue<>();
+        for (int i = 0; i < poolSize; i++) {
+            finishTimes.add(0.0);
+        }
+
+        double total = 0;
+        for (ScheduledScenario scenario : order) {
+            finishTimes.add(finishTimes.poll() + scenario.estimatedSeconds());
+            total += scenario.estimatedSeconds();
+        }
+
+        double makespan = finishTimes.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        double utilization = makespan > 0 ? total / (poolSize * makespan) : 1.0;
+        return new Simulation(makespan, utilization);
+    }
+
+    /**
+     * Log actual worker utilization of the finished run from observed scenario durations
+     */
+    public static void logActualUtilization(double busySeconds, double wallSeconds, int workers) {
+        if (wallSeconds <= 0 || busySeconds <= 0) {
+            return;
+        }
+        logger.info("Actual run: {}s wall clock, {}s scenario time on {} workers, utilization {}%",
+                   format(wallSeconds), format(busySeconds), workers,
+                   format(100.0 * busySeconds / (Math.max(1, workers) * wallSeconds)));
+    }
+
+    private static String format(double value) {
+        return String.format("%.1f", value);
+    }
+}
@@ -0,0 +1,118 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Deterministic partitioning of pickles across JVMs or machines
+ * Every shard computes the same partition independently from the same inputs:
+ * "hash" (default) assigns by a stable hash of the scenario key; "balanced" assigns scenarios
+ * longest-first to the least loaded shard and therefore needs the same duration history on every
+ * shard, so it only runs from an explicitly supplied test.shard.history.path, never the local .test-history.
+ */
+public class ScenarioSharder {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioSharder.class);
+
+    private ScenarioSharder() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Keep only the scenarios assigned to the configured shard
+     */
+    public static Object[][] select(Object[][] scenarios) {
+        int total = TestConfigManager.getShardTotal();
+        int index = TestConfigManager.getShardIndex();
+        if (total <= 1) {
+            return scenarios;
+        }
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException(
+                "test.shard.index must be between 0 and " + (total - 1) + " but was " + index);
+        }
+
+        String strategy = TestConfigManager.getShardStrategy();
+        List<ScenarioScheduler.ScheduledScenario> estimated;
+        int[] assignment;
+        if ("balanced".equalsIgnoreCase(strategy)) {
+            ScenarioDurationHistory history = sharedHistory();
+            estimated = ScenarioScheduler.estimate(scenarios, history);
+            assignment = assignBalanced(estimated, total);
+            logger.info("Shard {}/{} balanced from {} (fingerprint {}); all shards must log the same fingerprint",
+                       index + 1, total, TestConfigManager.getShardHistoryPath(), history.fingerprint());
+        } else if ("hash".equalsIgnoreCase(strategy)) {
+            estimated = ScenarioScheduler.estimate(scenarios);
+            assignment = assignByHash(estimated, total);
+        } else {
+            throw new IllegalArgumentException("test.shard.strategy must be hash or balanced but was " + strategy);
+        }
+
+        List<Object[]> selected = new ArrayList<>();
+        double[] load = new double[total];
+        for (int i = 0; i < estimated.size(); i++) {
+            load[assignment[i]] += estimated.get(i).estimatedSeconds();
+            if (assignment[i] == index) {
+                selected.add(estimated.get(i).row());
+            }
+        }
+
+        logger.info("Shard {}/{} ({}): {} of {} scenarios, estimated {}s (largest shard {}s)",
+                   index + 1, total, strategy, selected.size(), scenarios.length,
+                   String.format("%.1f", load[index]),
+                   String.format("%.1f", Arrays.stream(load).max().orElse(0)));
+        return selected.toArray(new Object[0][]);
+    }
+
+    /**
+     * The explicitly supplied history every shard partitions from
+     */
+    private static ScenarioDurationHistory sharedHistory() {
+        String path = TestConfigManager.getShardHistoryPath();
+        if (path == null || path.isBlank()) {
+            throw new IllegalStateException("test.shard.strategy=balanced requires test.shard.history.path pointing "
+                + "to a duration history shared by all shards; use test.shard.strategy=hash otherwise");
+        }
+        return ScenarioDurationHistory.fromFile(Paths.get(path));
+    }
+
+    /**
+     * Longest-first to the least loaded shard; ties broken by key and shard index for determinism
+     */
+    static int[] assignBalanced(List<ScenarioScheduler.ScheduledScenario> estimated, int total) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < estimated.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingDouble(i -> -estimated.get(i).estimatedSeconds())
+                             .thenComparing(i -> estimated.get(i).key()));
+
+        int[] assignment = new int[estimated.size()];
+        double[] load = new double[total];
+        for (int i : order) {
+            int target = 0;
+            for (int shard = 1; shard < total; shard++) {
+                if (load[shard] < load[target]) {
+                    target = shard;
+                }
+            }
+            assignment[i] = target;
+            load[target] += estimated.get(i).estimatedSeconds();
+        }
+        return assignment;
+    }
+
+    static int[] assignByHash(List<ScenarioScheduler.ScheduledScenario> estimated, int total) {
+        int[] assignment = new int[estimated.size()];
+        for (int i = 0; i < estimated.size(); i++) {
+            assignment[i] = Math.floorMod(estimated.get(i).key().hashCode(), total);
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.TestConfigManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Records passed steps into the {@link StepLatencyProfile} and runs the {@link LatencyRegressionGate}
+ * when the run finishes. Failed and skipped steps are left out: a timeout is a failure, not a latency.
+ * In load test mode steps go to the {@link LoadTest} report instead, so loaded latencies never reach
+ * the baseline.
+ *
+ * Usage: dev.marvinmarzon.runners.StepLatencyPlugin
+ */
+public final class StepLatencyPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> {
+            if (TestConfigManager.isLoadTestEnabled()) {
+                LoadTest.writeReport();
+            } else {
+                LatencyRegressionGate.evaluate(StepLatencyProfile.getInstance().snapshot());
+            }
+        });
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep step)) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        if (TestConfigManager.isLoadTestEnabled()) {
+            LoadTest.recordStep(step, event.getResult(), event.getInstant(), testCase);
+            return;
+        }
+        if (event.getResult().getStatus() != Status.PASSED) {
+            return;
+        }
+        StepLatencyProfile.getInstance().record(step.getPattern(), step.getCodeLocation(),
+            event.getResult().getDuration().toNanos(), step.getStep().getKeyword() + step.getStep().getText(),
+            testCase.getName(), testCase.getUri() + ":" + step.getStep().getLine());
+    }
+}
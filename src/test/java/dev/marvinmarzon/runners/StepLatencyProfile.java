@@ -0,0 +1,200 @@
+package dev.marvinmarzon.runners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * JVM-wide latency histograms of passed steps, one per step definition pattern
+ * Shared by all runner instances so the profile written at the end of each run covers every
+ * scenario of the JVM. Histograms are log-linear with 32 sub-buckets per power of two: values
+ * below 64 µs are exact and every other value is within about 3%.
+ */
+public final class StepLatencyProfile {
+    private static final Logger logger = LoggerFactory.getLogger(StepLatencyProfile.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SLOWEST_SAMPLES = 5;
+
+    private static final StepLatencyProfile instance = new StepLatencyProfile();
+
+    private final Map<String, PatternHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Profile file contents: per step pattern percentiles, slowest occurrences and the sparse histogram
+     */
+    public record Profile(String generated, Map<String, PatternProfile> steps) {
+    }
+
+    public record PatternProfile(String glue, long count, double meanMs, double p50Ms, double p90Ms,
+                                 double p95Ms, double p99Ms, double maxMs, List<Sample> slowest,
+                                 Map<Long, Long> histogramMicros) {
+    }
+
+    /**
+     * One step occurrence, kept for the slowest few of each pattern to attribute regressions
+     */
+    public record Sample(double durationMs, String step, String scenario, String location) {
+    }
+
+    StepLatencyProfile() {
+    }
+
+    public static StepLatencyProfile getInstance() {
+        return instance;
+    }
+
+    public void record(String pattern, String glue, long durationNanos, String step, String scenario, String location) {
+        histograms.computeIfAbsent(pattern, key -> new PatternHistogram(glue))
+                  .record(durationNanos / 1_000, step, scenario, location);
+    }
+
+    /**
+     * Percentiles of everything recorded so far, ordered by pattern
+     */
+    public Profile snapshot() {
+        Map<String, PatternProfile> steps = new TreeMap<>();
+        histograms.forEach((pattern, histogram) -> {
+            PatternProfile profile = histogram.toProfile();
+            if (profile.count() > 0) {
+                steps.put(pattern, profile);
+            }
+        });
+        return new Profile(Instant.now().toString(), steps);
+    }
+
+    public static void write(Profile profile, Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), profile);
+        } catch (IOException e) {
+            logger.warn("Could not write step latency profile: {}", file, e);
+        }
+    }
+
+    public static Profile read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), Profile.class);
+    }
+
+    /**
+     * Lock-free counts per bucket; only the slowest-sample list is guarded
+     */
+    private static final class PatternHistogram {
+        private static final int SUB_BUCKET_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+        private static final int BUCKETS = LINEAR_LIMIT + (Long.SIZE - 7) * SUB_BUCKETS;
+
+        private final String glue;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final PriorityQueue<Sample> slowest = new PriorityQueue<>(Comparator.comparingDouble(Sample::durationMs));
+
+        PatternHistogram(String glue) {
+            this.glue = glue;
+        }
+
+        void record(long micros, String step, String scenario, String location) {
+            counts.incrementAndGet(index(micros));
+            totalMicros.addAndGet(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            count.incrementAndGet();
+
+            double millis = micros / 1000.0;
+            synchronized (slowest) {
+                if (slowest.size() < SLOWEST_SAMPLES || slowest.peek().durationMs() < millis) {
+                    slowest.add(new Sample(millis, step, scenario, location));
+                    if (slowest.size() > SLOWEST_SAMPLES) {
+                        slowest.poll();
+                    }
+                }
+            }
+        }
+
+        PatternProfile toProfile() {
+            long[] snapshot = new long[BUCKETS];
+            long total = 0;
+            Map<Long, Long> sparse = new TreeMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+                if (snapshot[i] > 0) {
+                    sparse.put(lowerBound(i), snapshot[i]);
+                }
+            }
+            List<Sample> samples;
+            synchronized (slowest) {
+                samples = new ArrayList<>(slowest);
+            }
+            samples.sort(Comparator.comparingDouble(Sample::durationMs).reversed());
+
+            long max = maxMicros.get();
+            return new PatternProfile(glue, total, millis(total == 0 ? 0 : totalMicros.get() / count.get()),
+                                      percentile(snapshot, total, 0.50, max), percentile(snapshot, total, 0.90, max),
+                                      percentile(snapshot, total, 0.95, max), percentile(snapshot, total, 0.99, max),
+                                      millis(max), samples, sparse);
+        }
+
+        /**
+         * Highest value equivalent to the bucket holding the q-th recorded value, capped at the maximum
+         */
+        private static double percentile(long[] snapshot, long total, double quantile, long max) {
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return millis(Math.min(max, upperBound(i)));
+                }
+            }
+            return millis(max);
+        }
+
+        private static int index(long micros) {
+            if (micros < LINEAR_LIMIT) {
+                return (int) Math.max(0, micros);
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+            return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long lowerBound(int index) {
+            if (index < LINEAR_LIMIT) {
+                return index;
+            }
+            int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+            long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+            return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        private static long upperBound(int index) {
+            if (index < LINEAR_LIMIT) {
+                return index;
+            }
+            int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+            return lowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        private static double millis(long micros) {
+            return Math.round(micros / 10.0) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package dev.marvinmarzon.runners;
+
+import dev.marvinmarzon.utils.SuiteMetrics;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Feeds scenario and step durations into {@link SuiteMetrics}
+ * Also logs the time from the start of the run to its first test step (usually the first Before hook),
+ * which includes glue loading from the glue index or by classpath scanning on the first scenario thread.
+ *
+ * Usage: dev.marvinmarzon.runners.SuiteMetricsPlugin
+ */
+public final class SuiteMetricsPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(SuiteMetricsPlugin.class);
+
+    private volatile Instant runStarted;
+    private boolean firstStepSeen;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> runStarted = event.getInstant());
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onCaseFinished);
+    }
+
+    private synchronized void onStepStarted(TestStepStarted event) {
+        if (firstStepSeen || runStarted == null) {
+            return;
+        }
+        firstStepSeen = true;
+        logger.info("Time to first step: {} ms ({})", Duration.between(runStarted, event.getInstant()).toMillis(),
+                   GlueIndex.isActive() ? "glue index" : "classpath scanning");
+    }
+
+    private void onStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            SuiteMetrics.STEP_DURATION.observeNanos(event.getResult().getDuration().toNanos());
+        }
+    }
+
+    private void onCaseFinished(TestCaseFinished event) {
+        Result result = event.getResult();
+        SuiteMetrics.SCENARIO_DURATION.observeNanos(result.getDuration().toNanos());
+        switch (result.getStatus()) {
+            case PASSED -> SuiteMetrics.SCENARIOS_PASSED.increment();
+            case SKIPPED -> SuiteMetrics.SCENARIOS_SKIPPED.increment();
+            default -> SuiteMetrics.SCENARIOS_FAILED.increment();
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package dev.marvinmarzon.stepdefs;
 
 import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.utils.ArtifactArchive;
+import dev.marvinmarzon.utils.CachingProxy;
+import dev.marvinmarzon.utils.FixtureServer;
+import dev.marvinmarzon.utils.NetworkRecorder;
+import dev.marvinmarzon.utils.PageMetrics;
 import dev.marvinmarzon.utils.Screenshot;
+import dev.marvinmarzon.utils.TestConfigManager;
+import dev.marvinmarzon.utils.VisualDiffEngine;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.openqa.selenium.By;
@@ -29,6 +38,14 @@ public class AdvancedProfileStepDefinitions {
     
     private static final Logger logger = LoggerFactory.getLogger(AdvancedProfileStepDefinitions.class);
     private WebDriverWait wait;
+    private Scenario scenario;
+    private long proxyHitsBefore;
+    private double proxyHitRatioBefore;
+
+    @Before
+    public void captureScenario(Scenario scenario) {
+        this.scenario = scenario;
+    }
 
     @Then("images should load efficiently")
     public void images_should_load_efficiently() {
@@ -47,6 +64,14 @@ public class AdvancedProfileStepDefinitions {
             }
         }
         
+        // Resource Timing covers the whole fetch, including images that finished before the check ran
+        double maxImageMs = TestConfigManager.getPerformanceImageLoadMaxSeconds() * 1000;
+        if (maxImageMs > 0) {
+            double slowestImageMs = PageMetrics.collect(driver).resources().slowestImageMs();
+            assertWithLogging(slowestImageMs <= maxImageMs,
+                "Slowest image should load within " + maxImageMs + " ms, actual: " + slowestImageMs + " ms");
+        }
+
         logger.info("Verified {} images are loaded efficiently", images.size());
     }
 
@@ -79,35 +104,22 @@ public class AdvancedProfileStepDefinitions {
     @Then("the page should be optimized for performance")
     public void the_page_should_be_optimized_for_performance() {
         WebDriver driver = getCurrentDriver();
-        JavascriptExecutor js = (JavascriptExecutor) driver;
-        
-        try {
-            // Check page load performance using Navigation Timing API
-            Object loadTime = js.executeScript(
-                "return window.performance.timing.loadEventEnd - window.performance.timing.navigationStart");
-            
-            if (loadTime instanceof Number) {
-                double loadTimeMs = ((Number) loadTime).doubleValue();
-                double loadTimeSeconds = loadTimeMs / 1000.0;
-                
-                logger.info("Page load time: {} seconds", loadTimeSeconds);
-                
-                // Performance should be reasonable (under 5 seconds for full load)
-                assertWithLogging(loadTimeSeconds < 5.0, 
-                    "Page should load within 5 seconds for good performance, actual: " + loadTimeSeconds);
-            }
-            
-            // Check for performance optimizations
-            List<WebElement> images = driver.findElements(By.tagName("img"));
-            List<WebElement> scripts = driver.findElements(By.tagName("script"));
-            List<WebElement> stylesheets = driver.findElements(By.cssSelector("link[rel='stylesheet']"));
-            
-            logger.info("Performance check - Images: {}, Scripts: {}, Stylesheets: {}", 
-                       images.size(), scripts.size(), stylesheets.size());
-            
-        } catch (Exception e) {
-            logger.warn("Could not check performance metrics: {}", e.getMessage());
+
+        PageMetrics.Snapshot metrics = PageMetrics.collect(driver);
+        logger.info("Page performance: {}", metrics.summary());
+        if (!metrics.observedFromStart()) {
+            logger.debug("Observers attached after navigation; LCP, CLS and long tasks are from the browser's buffer");
         }
+
+        List<String> violations = metrics.violations(PageMetrics.Budget.fromConfig());
+        assertWithLogging(violations.isEmpty(),
+            "Page should stay within its performance budget: " + String.join("; ", violations));
+
+        // Check for performance optimizations
+        logger.info("Performance check - Images: {}, Scripts: {}, Stylesheets: {}",
+                   metrics.resources().byType().getOrDefault("img", 0),
+                   metrics.resources().byType().getOrDefault("script", 0),
+                   metrics.resources().byType().getOrDefault("link", 0));
     }
 
     @Then("the website should have proper heading structure")
@@ -246,6 +258,16 @@ public class AdvancedProfileStepDefinitions {
         List<WebElement> httpLinks = driver.findElements(By.cssSelector("link[href^='http:']"));
         
         int mixedContentCount = httpImages.size() + httpScripts.size() + httpLinks.size();
+
+        // Captured traffic also covers requests made from scripts and stylesheets
+        if (NetworkRecorder.isRecording() && driver.getCurrentUrl().startsWith("https://")) {
+            List<String> httpRequests = NetworkRecorder.requests().stream()
+                .map(NetworkRecorder.Request::url)
+                .filter(url -> url.startsWith("http:"))
+                .toList();
+            httpRequests.forEach(url -> logger.warn("Insecure request: {}", url));
+            mixedContentCount += httpRequests.size();
+        }
         
         assertWithLogging(mixedContentCount == 0, 
             "Should not have mixed content (HTTP resources on HTTPS page), found: " + mixedContentCount);
@@ -253,6 +275,39 @@ public class AdvancedProfileStepDefinitions {
         logger.info("Security check - Mixed content check passed");
     }
 
+    @Then("the network transfer should be at most {int} KB")
+    public void the_network_transfer_should_be_at_most_kb(int maxKb) {
+        List<NetworkRecorder.Request> requests = capturedRequests();
+        long transferBytes = requests.stream().mapToLong(NetworkRecorder.Request::transferBytes).sum();
+
+        logger.info("Network transfer: {} KB in {} requests", transferBytes / 1024, requests.size());
+        assertWithLogging(transferBytes <= maxKb * 1024L,
+            "Network transfer should be at most " + maxKb + " KB, actual: " + transferBytes / 1024 + " KB");
+    }
+
+    @Then("no network request should be larger than {int} KB")
+    public void no_network_request_should_be_larger_than_kb(int maxKb) {
+        List<NetworkRecorder.Request> oversized = capturedRequests().stream()
+            .filter(request -> request.transferBytes() > maxKb * 1024L)
+            .toList();
+        oversized.forEach(request -> logger.warn("Oversized request: {} ({} KB)",
+                                                 request.url(), request.transferBytes() / 1024));
+
+        assertWithLogging(oversized.isEmpty(),
+            oversized.size() + " requests should not be larger than " + maxKb + " KB");
+    }
+
+    @Then("no network request should fail")
+    public void no_network_request_should_fail() {
+        List<NetworkRecorder.Request> failed = capturedRequests().stream()
+            .filter(NetworkRecorder.Request::failed)
+            .toList();
+        failed.forEach(request -> logger.warn("Failed request: {} (status {}, {})",
+                                              request.url(), request.status(), request.failure()));
+
+        assertWithLogging(failed.isEmpty(), failed.size() + " network requests should not fail");
+    }
+
     @When("I set the viewport to {string} dimensions")
     public void i_set_the_viewport_to_dimensions(String device) {
         WebDriver driver = getCurrentDriver();
@@ -394,7 +449,68 @@ public class AdvancedProfileStepDefinitions {
         logger.info("Content quality check - No placeholder text found");
     }
 
+    @Then("the page should match the visual baseline {string}")
+    public void the_page_should_match_the_visual_baseline(String pageName) {
+        VisualDiffEngine.DiffResult result = Screenshot.compareWithBaseline(pageName);
+        assertWithLogging(result != null, "Screenshot should be captured and compared for page: " + pageName);
+
+        if (result.baselineCreated()) {
+            logger.info("Visual baseline recorded for page: {}", pageName);
+            return;
+        }
+
+        double threshold = TestConfigManager.getVisualThreshold();
+        if (!result.matches(threshold)) {
+            attachDiffMask(result);
+        }
+
+        assertWithLogging(result.matches(threshold),
+            "Page '" + pageName + "' should match visual baseline within " + threshold +
+            " but differed by " + result.diffRatio() + (result.earlyExit() ? " (early exit)" : ""));
+    }
+
+    @When("I open {string} again in a fresh browser session")
+    public void i_open_again_in_a_fresh_browser_session(String url) {
+        proxyHitsBefore = CachingProxy.hits();
+        proxyHitRatioBefore = CachingProxy.hitRatio();
+
+        // A new browser starts with an empty HTTP cache, so every request reaches the proxy
+        EnterpriseWebDriverManager.quitDriver();
+        EnterpriseWebDriverManager.initializeDriver();
+        WebDriver driver = getCurrentDriver();
+        driver.get(FixtureServer.resolve(url));
+        new WebDriverWait(driver, Duration.ofSeconds(30)).until(webDriver ->
+            "complete".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState")));
+    }
+
+    @Then("the caching proxy should serve the page from its cache")
+    public void the_caching_proxy_should_serve_the_page_from_its_cache() {
+        // The page, its stylesheet, script and image
+        long hits = CachingProxy.hits() - proxyHitsBefore;
+        double hitRatio = CachingProxy.hitRatio();
+        logger.info("Caching proxy: {} hits in the fresh session, hit ratio {} -> {}",
+            hits, String.format("%.2f", proxyHitRatioBefore), String.format("%.2f", hitRatio));
+
+        assertWithLogging(hits >= 4, "Fresh session should be served from the proxy cache, hits: " + hits);
+        // The disk tier survives between runs, so the ratio may already be saturated
+        assertWithLogging(hitRatio > proxyHitRatioBefore || proxyHitRatioBefore == 1.0,
+            "Proxy hit ratio should go up, before: " + proxyHitRatioBefore + ", after: " + hitRatio);
+    }
+
     // Helper methods
+    private void attachDiffMask(VisualDiffEngine.DiffResult result) {
+        try {
+            byte[] diffMask = result.diffMaskPng();
+            if (diffMask != null) {
+                String name = "Visual Diff Mask - " + result.baselineKey();
+                scenario.attach(diffMask, "image/png", name);
+                ArtifactArchive.archiveAttachment(scenario.getName(), name, "image/png", diffMask);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach visual diff mask for: {}", result.baselineKey(), e);
+        }
+    }
+
     private void assertWithLogging(boolean condition, String message) {
         if (!condition) {
             logger.error("Assertion failed: {}", message);
@@ -410,6 +526,14 @@ public class AdvancedProfileStepDefinitions {
         Assert.assertTrue(condition, message);
     }
 
+    private List<NetworkRecorder.Request> capturedRequests() {
+        if (!NetworkRecorder.isRecording()) {
+            throw new IllegalStateException("Network capture is not active; set test.network.capture.enabled=true "
+                + "and use a Chromium browser");
+        }
+        return NetworkRecorder.requests();
+    }
+
     private WebDriver getCurrentDriver() {
         WebDriver driver = EnterpriseWebDriverManager.getDriver();
         if (driver == null) {
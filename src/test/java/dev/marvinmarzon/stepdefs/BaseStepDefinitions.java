@@ -1,16 +1,29 @@
 package dev.marvinmarzon.stepdefs;
 
 import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.runners.LoadTest;
+import dev.marvinmarzon.utils.ArtifactArchive;
+import dev.marvinmarzon.utils.BrowserStateCache;
+import dev.marvinmarzon.utils.FlightRecorder;
+import dev.marvinmarzon.utils.NetworkRecorder;
+import dev.marvinmarzon.utils.RequestInterceptor;
+import dev.marvinmarzon.utils.PageMetrics;
+import dev.marvinmarzon.utils.ScenarioLogBuffer;
 import dev.marvinmarzon.utils.TestConfigManager;
 import dev.marvinmarzon.utils.Screenshot;
 import dev.marvinmarzon.utils.VideoRecorder;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Base step definitions for Cucumber-TestNG with enterprise-level setup and teardown
  * Provides comprehensive test execution management with proper resource handling
@@ -18,17 +31,39 @@ import org.testng.Assert;
 public class BaseStepDefinitions {
     private static final Logger logger = LoggerFactory.getLogger(BaseStepDefinitions.class);
     
+    // Background state snapshot bookkeeping for the current scenario
+    private String backgroundStateKey;
+    private int backgroundSteps;
+    private int stepsCompleted;
+    
     @Before(order = 0)
     public void setUpEnvironment(Scenario scenario) {
+        // Hold this scenario's log lines back until it is known whether it failed
+        if (TestConfigManager.isLogBufferEnabled()) {
+            ScenarioLogBuffer.begin(scenario.getName());
+        }
         logger.info("=== Starting scenario: {} ===", scenario.getName());
         logger.info("Thread ID: {}, Tags: {}", Thread.currentThread().getId(), scenario.getSourceTagNames());
         
         try {
+            // Apply scenario-scoped configuration overrides from tags
+            applyScenarioOverrides(scenario);
+            
             // Log configuration for debugging
             logTestConfiguration();
             
-            // Initialize WebDriver for this thread
-            EnterpriseWebDriverManager.initializeDriver();
+            // Initialize WebDriver for this thread; load test virtual users keep theirs between iterations
+            if (LoadTest.keepsDriver()) {
+                EnterpriseWebDriverManager.reuseDriver();
+            } else {
+                EnterpriseWebDriverManager.initializeDriver();
+            }
+            
+            // Start failure flight recorder for this thread
+            FlightRecorder.start(scenario.getName());
+            
+            // Capture network traffic before the first navigation
+            NetworkRecorder.start(EnterpriseWebDriverManager.getDriver());
             
             // Start video recording if enabled
             if (TestConfigManager.isVideoRecordingEnabled()) {
@@ -36,8 +71,10 @@ public class BaseStepDefinitions {
                 logger.debug("Video recording started for scenario: {}", scenario.getName());
             }
             
-            // Navigate to application
-            EnterpriseWebDriverManager.navigateToApplication();
+            // Restore the feature's Background state if captured, otherwise navigate to application
+            if (!restoreBackgroundState(scenario)) {
+                EnterpriseWebDriverManager.navigateToApplication();
+            }
             
             logger.info("Setup completed successfully for scenario: {} on thread: {}", 
                        scenario.getName(), Thread.currentThread().getId());
@@ -51,7 +88,7 @@ public class BaseStepDefinitions {
                 if (EnterpriseWebDriverManager.isDriverInitialized()) {
                     byte[] screenshot = Screenshot.takeScreenshot();
                     if (screenshot != null) {
-                        scenario.attach(screenshot, "image/png", "Setup Failure Screenshot");
+                        attach(scenario, screenshot, "image/png", "Setup Failure Screenshot");
                     }
                 }
             } catch (Exception screenshotException) {
@@ -59,11 +96,35 @@ public class BaseStepDefinitions {
             }
             
             // Clean up on setup failure
+            FlightRecorder.discard();
+            NetworkRecorder.discard();
             EnterpriseWebDriverManager.quitDriver();
+            TestConfigManager.clearScenarioOverrides();
             throw new RuntimeException("Test setup failed for scenario: " + scenario.getName(), e);
         }
     }
 
+    @AfterStep
+    public void recordStepBoundary(Scenario scenario) {
+        if (FlightRecorder.isRecording()) {
+            FlightRecorder.captureBrowserState(scenario.getStatus().name());
+        }
+    }
+
+    @AfterStep
+    public void captureBackgroundState(Scenario scenario) {
+        stepsCompleted++;
+        if (backgroundStateKey != null && stepsCompleted == backgroundSteps && !scenario.isFailed()
+                && !BrowserStateCache.isCaptured(backgroundStateKey)) {
+            BrowserStateCache.capture(backgroundStateKey, EnterpriseWebDriverManager.getDriver());
+        }
+    }
+
+    @AfterStep
+    public void thinkTime() {
+        LoadTest.thinkTime();
+    }
+
     @After(order = 1000)
     public void tearDownEnvironment(Scenario scenario) {
         logger.info("=== Finishing scenario: {} - Status: {} ===", 
@@ -80,6 +141,11 @@ public class BaseStepDefinitions {
                 handleVideoRecording(scenario);
             }
             
+            // Serialize flight recorder only for failed scenarios
+            if (scenario.isFailed()) {
+                attachFlightRecording(scenario);
+            }
+            
             // Log scenario completion details
             logScenarioCompletion(scenario);
             
@@ -87,13 +153,108 @@ public class BaseStepDefinitions {
             logger.error("Error during teardown for scenario: {} on thread: {}", 
                         scenario.getName(), Thread.currentThread().getId(), e);
         } finally {
-            // Always quit driver for this thread
-            EnterpriseWebDriverManager.quitDriver();
+            // Drop any remaining flight recorder buffer without I/O
+            FlightRecorder.discard();
+
+            // Attach the last page metrics a step collected, whatever the status
+            attachPageMetrics(scenario);
+
+            // Export captured network traffic before the browser goes away
+            attachNetworkCapture(scenario);
+
+            // Report blocked and stubbed requests and the request time they avoided
+            attachInterceptionReport(scenario);
+            
+            // Quit driver for this thread, unless a load test virtual user runs its next iteration with it
+            if (LoadTest.keepsDriver() && !scenario.isFailed()) {
+                EnterpriseWebDriverManager.resetSession();
+            } else {
+                EnterpriseWebDriverManager.quitDriver();
+            }
+            
+            // Scenario overrides must not leak into the next scenario on this thread
+            TestConfigManager.clearScenarioOverrides();
             logger.info("Teardown completed for scenario: {} on thread: {}", 
                        scenario.getName(), Thread.currentThread().getId());
+            
+            // Write and attach the buffered log of a failed scenario, drop it otherwise
+            flushScenarioLog(scenario);
+        }
+    }
+
+    /**
+     * Apply scenario-scoped configuration from tags such as
+     * {@code @browser:firefox}, {@code @viewport:375x667}, {@code @baseurl:https://...}
+     * or {@code @config:test.some.key=value}
+     */
+    private void applyScenarioOverrides(Scenario scenario) {
+        Map<String, String> overrides = new HashMap<>();
+        for (String tag : scenario.getSourceTagNames()) {
+            int separator = tag.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            String name = tag.substring(1, separator).toLowerCase();
+            String value = tag.substring(separator + 1);
+            switch (name) {
+                case "browser":
+                    overrides.put("test.browser", value);
+                    break;
+                case "headless":
+                    overrides.put("test.headless", value);
+                    break;
+                case "viewport":
+                    String[] size = value.toLowerCase().split("x");
+                    if (size.length == 2) {
+                        overrides.put("test.viewport.width", size[0]);
+                        overrides.put("test.viewport.height", size[1]);
+                    } else {
+                        logger.warn("Ignoring invalid viewport tag: {}", tag);
+                    }
+                    break;
+                case "baseurl":
+                    overrides.put("test.base.url", value);
+                    break;
+                case "throttle":
+                    overrides.put("test.throttle.profile", value);
+                    break;
+                case "config":
+                    int equals = value.indexOf('=');
+                    if (equals > 0) {
+                        overrides.put(value.substring(0, equals), value.substring(equals + 1));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        if (!overrides.isEmpty()) {
+            TestConfigManager.setScenarioProperties(overrides);
+            logger.info("Scenario configuration overrides for {}: {}", scenario.getName(), overrides);
         }
     }
 
+    /**
+     * Put a fresh driver into the state its feature's Background left an earlier scenario in
+     * Snapshots are keyed by Background, browser and base URL; the Background still runs afterwards.
+     *
+     * @return true if a captured state was restored
+     */
+    private boolean restoreBackgroundState(Scenario scenario) {
+        if (!TestConfigManager.isBackgroundSnapshotEnabled()) {
+            return false;
+        }
+        BrowserStateCache.BackgroundScope background = BrowserStateCache.background(scenario.getUri(), scenario.getLine());
+        backgroundSteps = background.steps();
+        if (backgroundSteps == 0) {
+            return false;
+        }
+        backgroundStateKey = scenario.getUri() + ":" + background.line() + "|" + TestConfigManager.getBrowser()
+            + "|" + TestConfigManager.getBaseUrl();
+        return BrowserStateCache.restore(backgroundStateKey, EnterpriseWebDriverManager.getDriver());
+    }
+
     /**
      * Take screenshot and attach to scenario
      */
@@ -103,7 +264,7 @@ public class BaseStepDefinitions {
                 byte[] screenshot = Screenshot.takeScreenshot();
                 if (screenshot != null) {
                     String screenshotName = scenario.isFailed() ? "Failure Screenshot" : "Screenshot";
-                    scenario.attach(screenshot, "image/png", screenshotName);
+                    attach(scenario, screenshot, "image/png", screenshotName);
                     logger.debug("Screenshot attached for scenario: {}", scenario.getName());
                 }
             }
@@ -121,7 +282,7 @@ public class BaseStepDefinitions {
             if (videoPath != null) {
                 // Attach video path for failed scenarios or if configured
                 if (scenario.isFailed()) {
-                    scenario.attach(videoPath.getBytes(), "text/plain", "Video Recording Path");
+                    attach(scenario, videoPath.getBytes(), "text/plain", "Video Recording Path");
                     logger.info("Video recording attached for failed scenario: {}", scenario.getName());
                 }
             }
@@ -130,10 +291,97 @@ public class BaseStepDefinitions {
         }
     }
 
+    /**
+     * Attach flight recorder buffer to failed scenario
+     */
+    private void attachFlightRecording(Scenario scenario) {
+        try {
+            byte[] recording = FlightRecorder.dumpAndStop();
+            if (recording != null) {
+                attach(scenario, recording, "application/json", "Flight Recorder");
+                logger.info("Flight recorder attached for failed scenario: {}", scenario.getName());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach flight recorder for scenario: {}", scenario.getName(), e);
+        }
+    }
+
+    /**
+     * Attach the last page metrics snapshot collected on this thread, if any
+     */
+    private void attachPageMetrics(Scenario scenario) {
+        try {
+            PageMetrics.Snapshot metrics = PageMetrics.takeLast();
+            if (metrics != null) {
+                attach(scenario, metrics.toJson(), "application/json", "Page Metrics");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach page metrics for scenario: {}", scenario.getName(), e);
+        }
+    }
+
+    /**
+     * Attach the network traffic captured for this scenario as a HAR log
+     */
+    private void attachNetworkCapture(Scenario scenario) {
+        try {
+            byte[] har = NetworkRecorder.exportHarAndStop();
+            if (har != null) {
+                attach(scenario, har, "application/json", "Network (HAR)");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach network capture for scenario: {}", scenario.getName(), e);
+        }
+    }
+
+    /**
+     * Attach the hits of each request interception rule for this scenario
+     */
+    private void attachInterceptionReport(Scenario scenario) {
+        try {
+            String report = RequestInterceptor.reportAndStop();
+            if (report != null) {
+                attach(scenario, report, "text/plain", "Request Interception");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach request interception report for scenario: {}", scenario.getName(), e);
+        }
+    }
+
+    /**
+     * Attach the scenario's buffered log lines if it failed
+     */
+    private void flushScenarioLog(Scenario scenario) {
+        try {
+            String log = ScenarioLogBuffer.end(scenario.isFailed());
+            if (log != null) {
+                attach(scenario, log, "text/plain", "Scenario Log");
+            }
+        } catch (Exception e) {
+            logger.error("Failed to attach scenario log for scenario: {}", scenario.getName(), e);
+        }
+    }
+
+    /**
+     * Attach to the scenario and keep a copy in the artifact archive when that backend is active
+     */
+    private static void attach(Scenario scenario, byte[] data, String contentType, String name) {
+        scenario.attach(data, contentType, name);
+        ArtifactArchive.archiveAttachment(scenario.getName(), name, contentType, data);
+    }
+
+    private static void attach(Scenario scenario, String text, String contentType, String name) {
+        scenario.attach(text, contentType, name);
+        ArtifactArchive.archiveAttachment(scenario.getName(), name, contentType, text.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * Log test configuration for debugging
      */
     private void logTestConfiguration() {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
         logger.debug("Test Configuration:");
         logger.debug("  Browser: {}", TestConfigManager.getBrowser());
         logger.debug("  Headless: {}", TestConfigManager.getHeadlessMode());
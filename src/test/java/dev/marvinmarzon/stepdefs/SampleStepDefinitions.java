@@ -1,6 +1,7 @@
 package dev.marvinmarzon.stepdefs;
 
 import dev.marvinmarzon.driver.EnterpriseWebDriverManager;
+import dev.marvinmarzon.utils.MeteredWait;
 import dev.marvinmarzon.utils.Screenshot;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -28,7 +29,7 @@ public class SampleStepDefinitions {
     @Given("I am on the home page")
     public void i_am_on_the_home_page() {
         WebDriver driver = getCurrentDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        wait = new MeteredWait(driver, Duration.ofSeconds(30));
         
         logger.info("Verifying home page is loaded on thread: {}", Thread.currentThread().getId());
         
@@ -50,7 +51,7 @@ public class SampleStepDefinitions {
     @When("I click on the {string} button")
     public void i_click_on_the_button(String buttonText) {
         WebDriver driver = getCurrentDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        wait = new MeteredWait(driver, Duration.ofSeconds(30));
         
         logger.info("Clicking on button: {} on thread: {}", buttonText, Thread.currentThread().getId());
         
@@ -105,7 +106,7 @@ public class SampleStepDefinitions {
     @Then("I should see {string} on the page")
     public void i_should_see_on_the_page(String expectedText) {
         WebDriver driver = getCurrentDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        wait = new MeteredWait(driver, Duration.ofSeconds(30));
         
         logger.info("Verifying text '{}' is present on page on thread: {}", expectedText, Thread.currentThread().getId());
         
@@ -131,7 +132,7 @@ public class SampleStepDefinitions {
     @Then("the page title should contain {string}")
     public void the_page_title_should_contain(String expectedTitleText) {
         WebDriver driver = getCurrentDriver();
-        wait = new WebDriverWait(driver, Duration.ofSeconds(30));
+        wait = new MeteredWait(driver, Duration.ofSeconds(30));
         
         logger.info("Verifying page title contains '{}' on thread: {}", expectedTitleText, Thread.currentThread().getId());
         
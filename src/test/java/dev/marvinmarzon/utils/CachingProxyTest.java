@@ -0,0 +1,102 @@
+package dev.marvinmarzon.utils;
+
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Freshness rules of the caching proxy (CachingProxy.ttlMillis)
+ */
+public class CachingProxyTest {
+    private static final long NOW = Instant.parse("2024-05-01T12:00:00Z").toEpochMilli();
+    private static final long NO_OVERRIDE = -1;
+
+    @Test
+    public void maxAgeSetsTheLifetime() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "public, max-age=3600"), 3_600_000);
+    }
+
+    @Test
+    public void sharedMaxAgeWinsOverMaxAge() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=60, s-maxage=600"), 600_000);
+    }
+
+    @Test
+    public void ageIsSubtractedFromMaxAge() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=600", "Age", "100"), 500_000);
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=600", "Age", "900"), 0);
+    }
+
+    @Test
+    public void noStoreAndPrivateAreNeverStored() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "no-store"), -1);
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "private, max-age=3600"), -1);
+    }
+
+    @Test
+    public void noCacheIsStoredButAlwaysRevalidated() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "no-cache, max-age=3600"), 0);
+    }
+
+    @Test
+    public void setCookieIsNeverStored() {
+        assertEquals(ttl(NO_OVERRIDE, "text/css", "Cache-Control", "max-age=3600", "Set-Cookie", "session=1"), -1);
+        assertEquals(ttl(600, "text/css", "Set-Cookie", "session=1"), -1);
+    }
+
+    @Test
+    public void varyOnlyAllowsAcceptEncoding() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=60", "Vary", "Accept-Encoding"), 60_000);
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=60", "Vary", "User-Agent"), -1);
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Cache-Control", "max-age=60", "Vary", "Accept-Encoding, Cookie"), -1);
+    }
+
+    @Test
+    public void expiresIsRelativeToTheResponseDate() {
+        long date = NOW - Duration.ofHours(1).toMillis();
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Date", httpDate(date),
+                         "Expires", httpDate(date + Duration.ofMinutes(10).toMillis())), 600_000);
+    }
+
+    @Test
+    public void invalidExpiresMeansAlreadyExpired() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Expires", "0"), 0);
+    }
+
+    @Test
+    public void lastModifiedGivesATenthOfItsAge() {
+        long lastModified = NOW - Duration.ofDays(10).toMillis();
+        assertEquals(ttl(NO_OVERRIDE, "text/html", "Last-Modified", httpDate(lastModified)), Duration.ofDays(1).toMillis());
+    }
+
+    @Test
+    public void noFreshnessInformationMeansZero() {
+        assertEquals(ttl(NO_OVERRIDE, "text/html"), 0);
+    }
+
+    @Test
+    public void overrideAppliesToStaticAssetsOnly() {
+        assertEquals(ttl(600, "text/css; charset=utf-8", "Cache-Control", "no-store"), 600_000);
+        assertEquals(ttl(600, "image/png"), 600_000);
+        assertEquals(ttl(600, "text/html", "Cache-Control", "no-store"), -1);
+    }
+
+    private static long ttl(long overrideTtlSeconds, String contentType, String... headers) {
+        List<String[]> headerList = new ArrayList<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            headerList.add(new String[] {headers[i], headers[i + 1]});
+        }
+        return CachingProxy.ttlMillis(headerList, contentType, overrideTtlSeconds, NOW);
+    }
+
+    private static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+}
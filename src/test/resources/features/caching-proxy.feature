@@ -0,0 +1,13 @@
+@baseurl:fixture:/cached/index.html
+Feature: Shared Caching Proxy
+  As a QA engineer
+  I want browsers to share cacheable static assets through the caching proxy
+  So that repeated page loads do not fetch the same bytes from the origin again
+
+  The fixture files under /cached/ are served with max-age, unlike the no-store fixtures.
+
+  @caching @config:test.proxy.cache.enabled=true
+  Scenario: A fresh browser session is served from the proxy cache
+    Given I navigate to "fixture:/cached/index.html"
+    When I open "fixture:/cached/index.html" again in a fresh browser session
+    Then the caching proxy should serve the page from its cache
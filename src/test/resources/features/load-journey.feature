@@ -0,0 +1,17 @@
+@load @baseurl:fixture:/index.html
+Feature: Browsing Journey on the Local Stand-in Site
+  As a performance engineer
+  I want the functional journey to double as a load test
+  So that the same scenarios measure latency under concurrent users
+
+  The pages are served by the local fixture server; run with mvn test -Pload to replay
+  this journey with concurrent virtual users.
+
+  Scenario: Browse from the landing page to the catalog
+    Given I navigate to "fixture:/index.html"
+    Then I should see the hero section
+    And images should have alt text
+    When I navigate to "fixture:/catalog.html"
+    Then I should see the main navigation menu
+    And the page should have a proper title tag
+    And the website should have proper heading structure
@@ -0,0 +1,18 @@
+@baseurl:fixture:/index.html
+Feature: Performance Under Throttled Network and CPU
+  As a QA engineer
+  I want to measure page performance on slow networks and devices
+  So that regressions for users on slow connections are caught
+
+  The fixture page is served locally, so throttled timings only depend on the profile.
+
+  @performance @throttle:fast-3g
+  Scenario: Fixture page on a fast 3G connection
+    Given I navigate to "fixture:/index.html"
+    Then the page should load within 10 seconds
+    And images should load efficiently
+
+  @performance @throttle:slow-3g+4x-cpu
+  Scenario: Fixture page on a slow 3G connection and a slow device
+    Given I navigate to "fixture:/index.html"
+    Then the page should load within 20 seconds
@@ -0,0 +1,13 @@
+// Fixed amount of main-thread work, so CPU throttling has a measurable effect
+(function () {
+  var list = document.getElementById('items');
+  var checksum = 0;
+  for (var i = 0; i < 2000000; i++) {
+    checksum = (checksum + i * 31) % 1000003;
+  }
+  for (var n = 1; n <= 20; n++) {
+    var item = document.createElement('li');
+    item.textContent = 'Item ' + n + ' (' + checksum + ')';
+    list.appendChild(item);
+  }
+})();